@@ -0,0 +1,72 @@
+package com.exchange.forex.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic inputs shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns {@code count} distinct three-letter codes, starting with {@code first}.
+     */
+    static List<String> currencies(String first, int count) {
+        List<String> codes = new ArrayList<>(count);
+        codes.add(first);
+        for (int i = 0; codes.size() < count; i++) {
+            String code = "" + (char) ('A' + i / 676 % 26) + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26);
+            if (!code.equals(first)) {
+                codes.add(code);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Builds a payload shaped like the exchange rate API response with {@code count} rates, mixing
+     * integer and decimal values as the API does.
+     */
+    static byte[] ratesPayload(String baseCurrency, int count) {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder()
+            .append("{\"provider\":\"https://www.exchangerate-api.com\",")
+            .append("\"WARNING_UPGRADE_TO_V6\":\"https://www.exchangerate-api.com/docs/free\",")
+            .append("\"terms\":\"https://www.exchangerate-api.com/terms\",")
+            .append("\"base\":\"").append(baseCurrency).append("\",")
+            .append("\"date\":\"2024-03-21\",\"time_last_updated\":1711065601,\"rates\":{");
+        List<String> codes = currencies(baseCurrency, count);
+        for (int i = 0; i < codes.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(codes.get(i)).append("\":");
+            if (i == 0) {
+                json.append(1);
+            } else if (i % 7 == 0) {
+                json.append(random.nextInt(20_000));
+            } else {
+                json.append(String.format(Locale.ROOT, "%.6f", random.nextDouble() * 100));
+            }
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builds a bulk conversion CSV of {@code rows} rows cycling through {@code pairs} pairs out of USD.
+     */
+    static byte[] bulkCsv(int rows, int pairs) {
+        List<String> codes = currencies("USD", pairs + 1);
+        StringBuilder csv = new StringBuilder("amount,sourceCurrency,targetCurrency\n");
+        for (int row = 0; row < rows; row++) {
+            csv.append(row % 1000 + 1).append(".25,USD,").append(codes.get(1 + row % pairs)).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
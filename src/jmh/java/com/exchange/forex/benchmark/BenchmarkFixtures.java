@@ -0,0 +1,78 @@
+package com.exchange.forex.benchmark;
+
+import com.exchange.forex.analytics.ConversionAnalytics;
+import com.exchange.forex.cache.RateSnapshotCache;
+import com.exchange.forex.config.HistoryProperties;
+import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.history.ConversionHistoryStore;
+import com.exchange.forex.history.NoHistoryPersistence;
+import com.exchange.forex.id.MonotonicTransactionIdGenerator;
+import com.exchange.forex.integration.RatesResponseParser;
+import com.exchange.forex.integration.impl.ExchangeRateProviderService;
+import com.exchange.forex.metrics.ConversionMetrics;
+import com.exchange.forex.model.RateTable;
+import com.exchange.forex.service.CrossRateEngine;
+import com.exchange.forex.service.CurrencyConversionService;
+import com.exchange.forex.service.ExchangeRateResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Wires the services under benchmark without a Spring context, backed by generated rate tables instead
+ * of the external API.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static ExchangeRateProviderService stubProvider(int currencies) {
+        RatesResponseParser parser = new RatesResponseParser(new ObjectMapper());
+        return new ExchangeRateProviderService(null, parser, null, new SimpleMeterRegistry()) {
+            @Override
+            public RateTable getRates(String baseCurrency) {
+                try {
+                    return parser.parse(new ByteArrayInputStream(BenchmarkData.ratesPayload(baseCurrency, currencies)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a cache that has already loaded the USD table.
+     */
+    static RateSnapshotCache rateSnapshotCache(int currencies) throws ExternalServiceException {
+        RateSnapshotCache cache = new RateSnapshotCache(stubProvider(currencies), event -> { });
+        cache.getSnapshot("USD");
+        return cache;
+    }
+
+    /**
+     * Returns a conversion service that resolves rates through {@code rateSnapshotCache}, keeps history in
+     * {@code historyStore} only and does not persist it.
+     */
+    static CurrencyConversionService conversionService(RateSnapshotCache rateSnapshotCache, ConversionHistoryStore historyStore) {
+        ExchangeRateResolver resolver = new ExchangeRateResolver(rateSnapshotCache, new CrossRateEngine(rateSnapshotCache));
+        return new CurrencyConversionService(resolver, historyStore, new NoHistoryPersistence(historyStore), new ConversionAnalytics(),
+            new ConversionMetrics(new SimpleMeterRegistry()), new MonotonicTransactionIdGenerator(0));
+    }
+
+    /**
+     * Returns a history store whose limits are high enough that nothing {@code entries} conversions add is evicted.
+     */
+    static ConversionHistoryStore historyStore(long entries) {
+        HistoryProperties properties = new HistoryProperties();
+        properties.setMaxEntries(entries);
+        properties.setMaxAge(Duration.ofDays(3650));
+        properties.setMaxBytes(DataSize.ofTerabytes(1));
+        return new ConversionHistoryStore(properties);
+    }
+}
@@ -0,0 +1,80 @@
+package com.exchange.forex.benchmark;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.service.BulkConversionListener;
+import com.exchange.forex.service.CurrencyConversionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures bulk CSV conversion in rows per second, collecting the results into one response and streaming them
+ * to a listener. Each file has {@value #ROWS} rows over 20 currency pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkConversionBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private CurrencyConversionService conversionService;
+    private byte[] csv;
+
+    @Setup
+    public void setUp() throws ExternalServiceException {
+        conversionService = BenchmarkFixtures.conversionService(
+            BenchmarkFixtures.rateSnapshotCache(160), BenchmarkFixtures.historyStore(100_000));
+        csv = BenchmarkData.bulkCsv(ROWS, 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        conversionService.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Map<String, Object> collected() {
+        return conversionService.processBulkConversions(new ByteArrayInputStream(csv));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void streamed(Blackhole blackhole) {
+        conversionService.streamBulkConversions(new ByteArrayInputStream(csv), new BulkConversionListener() {
+            @Override
+            public void onConversion(int rowNumber, ConversionResponse response) {
+                blackhole.consume(response);
+            }
+
+            @Override
+            public void onFailure(int rowNumber, String errorMessage) {
+                blackhole.consume(errorMessage);
+            }
+
+            @Override
+            public void onComplete(int processedCount, int successfulCount, int failedCount) {
+                blackhole.consume(processedCount);
+            }
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.exchange.forex.benchmark;
+
+import com.exchange.forex.money.FixedPoint;
+import com.exchange.forex.money.MinorUnits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares pricing one conversion the way {@code CurrencyConversionService} did, by multiplying the amount with
+ * {@code BigDecimal.valueOf(rate)}, with the fixed-point multiply, both from the API's {@link BigDecimal} amount
+ * and on amounts already held in minor units.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionArithmeticBenchmark {
+
+    private BigDecimal amount;
+    private long amountUnits;
+    private double rate;
+    private long rateUnits;
+    private int targetScale;
+
+    @Setup
+    public void setUp() {
+        amount = new BigDecimal("1234.56");
+        amountUnits = 123_456;
+        rate = 151.4563;
+        rateUnits = FixedPoint.toRateUnits(rate);
+        targetScale = MinorUnits.of("USD");
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        return amount.multiply(BigDecimal.valueOf(rate)).setScale(targetScale, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal fixedPointFromApi() {
+        return FixedPoint.convert(amount, rate, targetScale);
+    }
+
+    @Benchmark
+    public long fixedPoint() {
+        return FixedPoint.multiply(amountUnits, 2, rateUnits, targetScale);
+    }
+}
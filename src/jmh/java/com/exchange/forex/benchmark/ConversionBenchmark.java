@@ -0,0 +1,52 @@
+package com.exchange.forex.benchmark;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.service.CurrencyConversionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CurrencyConversionService#convertCurrency} end to end against a cached rate table: validation,
+ * rate lookup, pricing and recording the conversion in a history bounded to 100,000 entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConversionBenchmark {
+
+    private CurrencyConversionService conversionService;
+    private BigDecimal amount;
+    private String target;
+
+    @Setup
+    public void setUp() throws ExternalServiceException {
+        conversionService = BenchmarkFixtures.conversionService(
+            BenchmarkFixtures.rateSnapshotCache(160), BenchmarkFixtures.historyStore(100_000));
+        amount = new BigDecimal("1234.56");
+        List<String> currencies = BenchmarkData.currencies("USD", 160);
+        target = currencies.get(100);
+    }
+
+    @Benchmark
+    public ConversionResponse convertCurrency() {
+        return conversionService.convertCurrency(amount, "USD", target);
+    }
+}
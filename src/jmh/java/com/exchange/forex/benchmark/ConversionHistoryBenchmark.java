@@ -0,0 +1,91 @@
+package com.exchange.forex.benchmark;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.history.ConversionHistoryStore;
+import com.exchange.forex.service.CurrencyConversionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CurrencyConversionService#getConversionHistory} by transaction id and by date, and the cursor
+ * page that follows, with the history holding {@code entries} conversions spread over ten days. The largest
+ * size needs several gigabytes of heap; pass {@code -p entries=10000} to skip it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class ConversionHistoryBenchmark {
+
+    private static final int DAYS = 10;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 3, 12, 0, 0);
+
+    @Param({"10000", "1000000", "10000000"})
+    private int entries;
+
+    private CurrencyConversionService conversionService;
+    private String transactionId;
+    private LocalDate date;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        ConversionHistoryStore historyStore = BenchmarkFixtures.historyStore(entries);
+        long perDay = entries / DAYS;
+        long spacingMillis = TimeUnit.DAYS.toMillis(1) / perDay;
+        BigDecimal amount = new BigDecimal("100.00");
+        BigDecimal converted = new BigDecimal("85.00");
+        for (int i = 0; i < entries; i++) {
+            ConversionResponse conversion = new ConversionResponse();
+            conversion.setTransactionId(String.format("%036d", i));
+            conversion.setSourceCurrency("USD");
+            conversion.setTargetCurrency("EUR");
+            conversion.setSourceAmount(amount);
+            conversion.setConvertedAmount(converted);
+            conversion.setExchangeRate(0.85);
+            conversion.setConversionDate(FIRST_DAY.plusDays(i / perDay).plusNanos(i % perDay * spacingMillis * 1_000_000));
+            historyStore.add(conversion);
+        }
+        conversionService = BenchmarkFixtures.conversionService(null, historyStore);
+        transactionId = String.format("%036d", entries / 2);
+        date = FIRST_DAY.toLocalDate().plusDays(DAYS / 2);
+        cursor = (String) conversionService.getConversionHistory(null, date, 0, 20).get("nextCursor");
+    }
+
+    @Benchmark
+    public Map<String, Object> byTransactionId() {
+        return conversionService.getConversionHistory(transactionId, null, 0, 20);
+    }
+
+    @Benchmark
+    public Map<String, Object> byDateFirstPage() {
+        return conversionService.getConversionHistory(null, date, 0, 20);
+    }
+
+    @Benchmark
+    public Map<String, Object> byDatePage50() {
+        return conversionService.getConversionHistory(null, date, 50, 20);
+    }
+
+    @Benchmark
+    public Map<String, Object> byCursor() {
+        return conversionService.getConversionHistoryAfter(cursor, 20);
+    }
+}
@@ -0,0 +1,73 @@
+package com.exchange.forex.benchmark;
+
+import com.exchange.forex.cache.RateSnapshot;
+import com.exchange.forex.model.RateTable;
+import com.exchange.forex.timeseries.RateCandle;
+import com.exchange.forex.timeseries.RateHistoryStore;
+import com.exchange.forex.timeseries.RatePoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures as-of lookups and hourly candles on a rate history holding one million USD/EUR rates, one per
+ * second over about eleven and a half days.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateHistoryBenchmark {
+
+    private static final int POINTS = 1_000_000;
+    private static final Instant START = Instant.parse("2024-03-12T00:00:00Z");
+
+    private RateHistoryStore rateHistoryStore;
+    private Instant[] lookups;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rateHistoryStore = new RateHistoryStore();
+        Random random = new Random(42);
+        double rate = 0.85;
+        for (int i = 0; i < POINTS; i++) {
+            rate += (random.nextDouble() - 0.5) * 1e-4;
+            Instant fetchedAt = START.plusSeconds(i);
+            rateHistoryStore.record(new RateSnapshot("USD", RateTable.of("USD", Map.of("EUR", rate)), fetchedAt, fetchedAt));
+        }
+        lookups = new Instant[1024];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = START.plusMillis((long) (random.nextDouble() * POINTS * 1000));
+        }
+    }
+
+    @Benchmark
+    public RatePoint asOf() {
+        Instant at = lookups[next++ & (lookups.length - 1)];
+        return rateHistoryStore.getAsOf("USD", "EUR", at);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<RateCandle> hourlyCandlesOfADay() {
+        return rateHistoryStore.getCandles("USD", "EUR", START.plusSeconds(86_400), START.plusSeconds(2 * 86_400),
+            Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,58 @@
+package com.exchange.forex.benchmark;
+
+import com.exchange.forex.cache.RateSnapshotCache;
+import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.service.CrossRateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a cached pair lookup through the direct rate matrix and the cross rate matrix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLookupBenchmark {
+
+    private RateSnapshotCache rateSnapshotCache;
+    private CrossRateEngine crossRateEngine;
+    private String source;
+    private String crossSource;
+    private String target;
+
+    @Setup
+    public void setUp() throws ExternalServiceException {
+        rateSnapshotCache = BenchmarkFixtures.rateSnapshotCache(160);
+        crossRateEngine = new CrossRateEngine(rateSnapshotCache);
+        List<String> currencies = BenchmarkData.currencies("USD", 160);
+        source = currencies.get(0);
+        crossSource = currencies.get(17);
+        target = currencies.get(100);
+    }
+
+    @Benchmark
+    public double directLookup() throws ExternalServiceException {
+        return rateSnapshotCache.getExchangeRate(source, target);
+    }
+
+    @Benchmark
+    public double crossLookup() throws ExternalServiceException {
+        return crossRateEngine.getExchangeRate(crossSource, target);
+    }
+}
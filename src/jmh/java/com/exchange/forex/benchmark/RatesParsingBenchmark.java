@@ -0,0 +1,59 @@
+package com.exchange.forex.benchmark;
+
+import com.exchange.forex.integration.RatesResponseParser;
+import com.exchange.forex.model.RateTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the untyped {@code Map.class} deserialization of a {@code /latest/{base}} payload with the
+ * streaming {@link RatesResponseParser}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RatesParsingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private RatesResponseParser parser;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        parser = new RatesResponseParser(objectMapper);
+        payload = BenchmarkData.ratesPayload("USD", 160);
+    }
+
+    @Benchmark
+    public Map<String, Double> mapDeserialization() throws IOException {
+        Map<String, Object> response = objectMapper.readValue(payload, Map.class);
+        Map<String, Object> rawRates = (Map<String, Object>) response.get("rates");
+        Map<String, Double> rates = new HashMap<>(rawRates.size() * 2);
+        rawRates.forEach((currency, rate) -> rates.put(currency, ((Number) rate).doubleValue()));
+        return rates;
+    }
+
+    @Benchmark
+    public RateTable streamingParse() throws IOException {
+        return parser.parse(new ByteArrayInputStream(payload));
+    }
+}
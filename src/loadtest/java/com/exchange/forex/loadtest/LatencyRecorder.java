@@ -0,0 +1,59 @@
+package com.exchange.forex.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one endpoint. Latencies are kept in a preallocated array, so recording never
+ * allocates; once it is full only the counters keep counting.
+ */
+final class LatencyRecorder {
+
+    private final String name;
+    private final long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+
+    LatencyRecorder(String name, int capacity) {
+        this.name = name;
+        this.latencies = new long[capacity];
+    }
+
+    void record(long latencyNanos, String error) {
+        requests.increment();
+        if (error != null) {
+            errors.increment();
+            firstError.compareAndSet(null, error);
+        }
+        int index = recorded.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = latencyNanos;
+        }
+    }
+
+    Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, Math.min(recorded.get(), latencies.length));
+        Arrays.sort(sorted);
+        long total = requests.sum();
+        return new Summary(name, total, total / seconds, total == 0 ? 0 : errors.sum() * 100.0 / total,
+            percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 99.9),
+            sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6, firstError.get());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    record Summary(String endpoint, long requests, double throughput, double errorPercent,
+                   double p50Millis, double p90Millis, double p99Millis, double p999Millis, double maxMillis,
+                   String firstError) {
+    }
+}
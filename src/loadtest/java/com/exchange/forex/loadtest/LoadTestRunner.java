@@ -0,0 +1,217 @@
+package com.exchange.forex.loadtest;
+
+import com.exchange.forex.ForexApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Starts the application against a {@link StubRatesServer} and drives its endpoints at fixed request rates,
+ * then prints throughput, latency percentiles and error rates per endpoint. Everything runs on the loopback
+ * interface, so no network access is needed.
+ * <p>
+ * Requests are issued on schedule whether or not earlier ones have completed, and latency is measured from the
+ * scheduled start, so a stalled server shows up in the percentiles instead of lowering the request rate.
+ * Settings are system properties:
+ * <ul>
+ *   <li>{@code loadtest.duration} (default 30s) and {@code loadtest.warmup} (default 5s)</li>
+ *   <li>{@code loadtest.rate.convert}, {@code .exchange-rate}, {@code .conversions}, {@code .bulk-convert}:
+ *       requests per second (defaults 200, 200, 50, 2)</li>
+ *   <li>{@code loadtest.bulk-rows} (default 1000): rows per bulk file</li>
+ *   <li>{@code loadtest.stub.latency} (default 50ms) and {@code loadtest.stub.failure-rate} (default 0)</li>
+ *   <li>{@code loadtest.cache-ttl-minutes} (default 1): rate cache TTL of the application, kept short so the
+ *       stub keeps being called</li>
+ * </ul>
+ */
+public final class LoadTestRunner {
+
+    private static final String BOUNDARY = "loadtest-boundary";
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final String baseUrl;
+    private final byte[] bulkBody;
+
+    private LoadTestRunner(String baseUrl, int bulkRows) {
+        this.baseUrl = baseUrl;
+        this.bulkBody = bulkBody(bulkRows);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s"));
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "5s"));
+        Duration stubLatency = DurationStyle.detectAndParse(System.getProperty("loadtest.stub.latency", "50ms"));
+        double failureRate = Double.parseDouble(System.getProperty("loadtest.stub.failure-rate", "0"));
+
+        try (StubRatesServer stub = new StubRatesServer(stubLatency, failureRate);
+             ConfigurableApplicationContext application = new SpringApplicationBuilder(ForexApplication.class).run(
+                 "--server.port=0",
+                 "--exchange-rate.api.url=" + stub.getUrl(),
+                 "--exchange-rate.cache.ttl-minutes=" + System.getProperty("loadtest.cache-ttl-minutes", "1"),
+                 "--exchange-rate.cache.preload-currencies=USD",
+                 "--spring.datasource.url=jdbc:h2:mem:loadtest",
+                 "--conversion.history.persistence.type=none",
+                 "--logging.level.root=WARN")) {
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            LoadTestRunner runner = new LoadTestRunner("http://127.0.0.1:" + port,
+                Integer.getInteger("loadtest.bulk-rows", 1000));
+
+            System.out.printf("Warming up for %s against stub %s (latency %s, failure rate %.2f)%n",
+                warmup, stub.getUrl(), stubLatency, failureRate);
+            runner.run(warmup);
+            long stubRequestsBefore = stub.getRequestCount();
+            long stubFailuresBefore = stub.getFailureCount();
+            System.out.printf("Measuring for %s%n", duration);
+            List<LatencyRecorder.Summary> summaries = runner.run(duration);
+            print(summaries);
+            System.out.printf("Stub calls while measuring: %d (%d failed)%n",
+                stub.getRequestCount() - stubRequestsBefore, stub.getFailureCount() - stubFailuresBefore);
+        }
+    }
+
+    private List<LatencyRecorder.Summary> run(Duration duration) throws InterruptedException {
+        List<Driver> drivers = List.of(
+            new Driver("POST /api/convert", rate("convert", 200), duration, this::convertRequest),
+            new Driver("GET /api/exchange-rate", rate("exchange-rate", 200), duration, this::exchangeRateRequest),
+            new Driver("GET /api/conversions", rate("conversions", 50), duration, this::conversionsRequest),
+            new Driver("POST /api/bulk-convert", rate("bulk-convert", 2), duration, this::bulkConvertRequest)
+        );
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> schedulers = new ArrayList<>();
+            for (Driver driver : drivers) {
+                schedulers.add(Thread.ofPlatform().name("loadtest-" + driver.endpoint)
+                    .start(() -> driver.drive(start, end, requests)));
+            }
+            for (Thread scheduler : schedulers) {
+                scheduler.join();
+            }
+        }
+        double seconds = duration.toNanos() / 1e9;
+        return drivers.stream().map(driver -> driver.recorder.summarize(seconds)).toList();
+    }
+
+    private static double rate(String endpoint, double defaultRate) {
+        return Double.parseDouble(System.getProperty("loadtest.rate." + endpoint, String.valueOf(defaultRate)));
+    }
+
+    private HttpRequest convertRequest() {
+        String body = String.format(Locale.ROOT, "{\"amount\":%d.50,\"sourceCurrency\":\"%s\",\"targetCurrency\":\"%s\"}",
+            ThreadLocalRandom.current().nextInt(1, 10_000), randomCurrency(), randomCurrency());
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/convert"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private HttpRequest exchangeRateRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/exchange-rate?sourceCurrency=" + randomCurrency()
+            + "&targetCurrency=" + randomCurrency())).GET().build();
+    }
+
+    private HttpRequest conversionsRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/conversions?date=" + LocalDate.now()
+            + "&page=" + ThreadLocalRandom.current().nextInt(10) + "&size=20")).GET().build();
+    }
+
+    private HttpRequest bulkConvertRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/bulk-convert"))
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(bulkBody))
+            .build();
+    }
+
+    private static String randomCurrency() {
+        List<String> currencies = StubRatesServer.CURRENCIES;
+        return currencies.get(ThreadLocalRandom.current().nextInt(currencies.size()));
+    }
+
+    private static byte[] bulkBody(int rows) {
+        StringBuilder csv = new StringBuilder("amount,sourceCurrency,targetCurrency\n");
+        for (int row = 0; row < rows; row++) {
+            csv.append(row % 1000 + 1).append(".25,").append(randomCurrency()).append(',').append(randomCurrency()).append('\n');
+        }
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"loadtest.csv\"\r\n"
+            + "Content-Type: text/csv\r\n\r\n"
+            + csv
+            + "\r\n--" + BOUNDARY + "--\r\n";
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void print(List<LatencyRecorder.Summary> summaries) {
+        System.out.printf("%-24s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+            "Endpoint", "Requests", "Req/s", "Errors%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (LatencyRecorder.Summary s : summaries) {
+            System.out.printf(Locale.ROOT, "%-24s %9d %9.1f %8.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                s.endpoint(), s.requests(), s.throughput(), s.errorPercent(),
+                s.p50Millis(), s.p90Millis(), s.p99Millis(), s.p999Millis(), s.maxMillis());
+        }
+        for (LatencyRecorder.Summary s : summaries) {
+            if (s.firstError() != null) {
+                System.out.printf("First error of %s: %s%n", s.endpoint(), s.firstError());
+            }
+        }
+    }
+
+    private final class Driver {
+
+        private final String endpoint;
+        private final double rate;
+        private final Supplier<HttpRequest> requestFactory;
+        private final LatencyRecorder recorder;
+
+        Driver(String endpoint, double rate, Duration duration, Supplier<HttpRequest> requestFactory) {
+            this.endpoint = endpoint;
+            this.rate = rate;
+            this.requestFactory = requestFactory;
+            this.recorder = new LatencyRecorder(endpoint, (int) Math.min(50_000_000, rate * duration.toSeconds() + 1));
+        }
+
+        void drive(long start, long end, ExecutorService requests) {
+            if (rate <= 0) {
+                return;
+            }
+            long intervalNanos = (long) (1e9 / rate);
+            for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedStart = scheduled;
+                requests.execute(() -> send(intendedStart));
+            }
+        }
+
+        private void send(long intendedStart) {
+            String error;
+            try {
+                HttpResponse<String> response = client.send(requestFactory.get(), HttpResponse.BodyHandlers.ofString());
+                error = response.statusCode() >= 400 ? response.statusCode() + " " + response.body() : null;
+            } catch (Exception e) {
+                error = e.toString();
+            }
+            recorder.record(System.nanoTime() - intendedStart, error);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.exchange.forex.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for {@code GET /latest/{base}} of the exchange rate API. Every response is delayed by
+ * {@code latency}, and a {@code failureRate} share of them is answered with 503 instead of rates.
+ */
+final class StubRatesServer implements AutoCloseable {
+
+    static final List<String> CURRENCIES = List.of(
+        "USD", "EUR", "GBP", "JPY", "CHF", "CAD", "AUD", "NZD", "SEK", "NOK", "DKK", "PLN", "CZK", "HUF", "TRY",
+        "CNY", "HKD", "SGD", "KRW", "INR", "BRL", "MXN", "ZAR", "AED", "SAR", "ILS", "THB", "MYR", "IDR", "PHP"
+    );
+
+    private final HttpServer server;
+    private final Duration latency;
+    private final double failureRate;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    StubRatesServer(Duration latency, double failureRate) throws IOException {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/latest/", this::handle);
+        this.server.start();
+    }
+
+    String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long getRequestCount() {
+        return requests.sum();
+    }
+
+    long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            Thread.sleep(latency);
+            String base = exchange.getRequestURI().getPath().substring("/latest/".length());
+            if (ThreadLocalRandom.current().nextDouble() < failureRate || !CURRENCIES.contains(base)) {
+                failures.increment();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            byte[] body = ratesPayload(base);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Rates that stay consistent across bases: every currency has a fixed value in an arbitrary unit. */
+    private static byte[] ratesPayload(String base) {
+        double baseValue = valueOf(base);
+        StringBuilder json = new StringBuilder("{\"base\":\"").append(base).append("\",\"rates\":{");
+        for (int i = 0; i < CURRENCIES.size(); i++) {
+            String currency = CURRENCIES.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(currency).append("\":")
+                .append(String.format(Locale.ROOT, "%.6f", baseValue / valueOf(currency)));
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static double valueOf(String currency) {
+        return 0.5 + CURRENCIES.indexOf(currency) * 0.37;
+    }
+}
@@ -0,0 +1,80 @@
+package com.exchange.forex.analytics;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-day, per-pair conversion totals maintained as conversions are made, so reading a day costs one pass over
+ * its pairs however many conversions it had. Totals cover the conversions made since startup; days older than
+ * {@code conversion.analytics.retention} are dropped.
+ */
+@Component
+public class ConversionAnalytics {
+
+    private static final Comparator<PairVolume> BUSIEST_FIRST = Comparator
+        .comparingLong(PairVolume::count).reversed()
+        .thenComparing(PairVolume::sourceCurrency)
+        .thenComparing(PairVolume::targetCurrency);
+
+    private final ConcurrentMap<LocalDate, ConcurrentMap<String, PairTotals>> days = new ConcurrentHashMap<>();
+
+    @Value("${conversion.analytics.retention:31d}")
+    private Duration retention = Duration.ofDays(31);
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public void record(ConversionResponse conversion) {
+        LocalDate day = conversion.getConversionDate().toLocalDate();
+        ConcurrentMap<String, PairTotals> pairs = days.get(day);
+        if (pairs == null) {
+            pairs = days.computeIfAbsent(day, key -> new ConcurrentHashMap<>());
+        }
+        String pair = conversion.getSourceCurrency() + conversion.getTargetCurrency();
+        PairTotals totals = pairs.get(pair);
+        if (totals == null) {
+            totals = pairs.computeIfAbsent(pair, key -> new PairTotals());
+        }
+        totals.add(conversion.getSourceAmount(), conversion.getConvertedAmount());
+    }
+
+    /** Totals of {@code date} with its {@code top} busiest pairs. */
+    public DailyAnalytics getDay(LocalDate date, int top) {
+        if (top < 1) {
+            throw new IllegalArgumentException("Number of top pairs must not be less than one");
+        }
+        Map<String, PairTotals> pairs = days.get(date);
+        if (pairs == null) {
+            pairs = Map.of();
+        }
+        List<PairVolume> volumes = new ArrayList<>(pairs.size());
+        long totalCount = 0;
+        for (Map.Entry<String, PairTotals> entry : pairs.entrySet()) {
+            PairTotals totals = entry.getValue();
+            PairVolume volume = new PairVolume(entry.getKey().substring(0, 3), entry.getKey().substring(3),
+                totals.count(), totals.sourceAmount(), totals.convertedAmount());
+            volumes.add(volume);
+            totalCount += volume.count();
+        }
+        volumes.sort(BUSIEST_FIRST);
+        return new DailyAnalytics(date, totalCount, volumes.size(), List.copyOf(volumes.subList(0, Math.min(top, volumes.size()))));
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void evictExpired() {
+        LocalDate oldest = LocalDate.now(clock).minusDays(retention.toDays());
+        days.keySet().removeIf(day -> day.isBefore(oldest));
+    }
+}
@@ -0,0 +1,15 @@
+package com.exchange.forex.analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Conversion totals of a day: the number of conversions and distinct pairs, and the busiest pairs by count.
+ */
+public record DailyAnalytics(
+    LocalDate date,
+    long totalCount,
+    int pairCount,
+    List<PairVolume> topPairs
+) {
+}
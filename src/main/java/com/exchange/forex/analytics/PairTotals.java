@@ -0,0 +1,69 @@
+package com.exchange.forex.analytics;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of one currency pair on one day. Amounts are summed as longs in units of
+ * 10<sup>-{@value #AMOUNT_SCALE}</sup>, so concurrent conversions add to striped cells instead of contending on
+ * one value and the sums stay exact.
+ * <p>
+ * Amounts of {@value #LARGE_UNIT_BITS} bits of units or more, about 10<sup>8</sup> and above, are summed into a
+ * {@code BigInteger} under a lock instead, so no single amount overflows the long cells; they could only overflow
+ * after some 8 million conversions of one pair on one day just below that bound.
+ */
+class PairTotals {
+
+    static final int AMOUNT_SCALE = 4;
+
+    private static final int LARGE_UNIT_BITS = 40;
+
+    private final LongAdder count = new LongAdder();
+    private final Sum source = new Sum();
+    private final Sum converted = new Sum();
+
+    void add(BigDecimal sourceAmount, BigDecimal convertedAmount) {
+        count.increment();
+        source.add(sourceAmount);
+        converted.add(convertedAmount);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    BigDecimal sourceAmount() {
+        return source.total();
+    }
+
+    BigDecimal convertedAmount() {
+        return converted.total();
+    }
+
+    private static final class Sum {
+
+        private final LongAdder units = new LongAdder();
+        private BigInteger largeUnits = BigInteger.ZERO;
+
+        void add(BigDecimal amount) {
+            BigInteger amountUnits = amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue();
+            if (amountUnits.bitLength() < LARGE_UNIT_BITS) {
+                units.add(amountUnits.longValue());
+            } else {
+                synchronized (this) {
+                    largeUnits = largeUnits.add(amountUnits);
+                }
+            }
+        }
+
+        BigDecimal total() {
+            BigInteger large;
+            synchronized (this) {
+                large = largeUnits;
+            }
+            return new BigDecimal(large.add(BigInteger.valueOf(units.sum())), AMOUNT_SCALE);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.exchange.forex.analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of conversions of a currency pair on a day and the amounts converted, summed to four decimals.
+ */
+public record PairVolume(
+    String sourceCurrency,
+    String targetCurrency,
+    long count,
+    BigDecimal sourceAmount,
+    BigDecimal convertedAmount
+) {
+}
@@ -0,0 +1,107 @@
+package com.exchange.forex.cache;
+
+import com.exchange.forex.model.CurrencyIndex;
+import com.exchange.forex.model.RateTable;
+
+import java.util.Arrays;
+
+/**
+ * Immutable square matrix of exchange rates indexed by {@link CurrencyIndex}, stored row by row in one flat
+ * array. Each source currency row carries its own expiry. A lookup only reads arrays, so it takes no lock
+ * and allocates nothing; readers share a matrix through a single volatile reference and writers replace it
+ * with a freshly built one.
+ */
+public final class RateMatrix {
+
+    public static final RateMatrix EMPTY = new RateMatrix(0, new double[0], new long[0]);
+
+    private final int size;
+    private final double[] rates;
+    private final long[] expiresAt;
+
+    private RateMatrix(int size, double[] rates, long[] expiresAt) {
+        this.size = size;
+        this.rates = rates;
+        this.expiresAt = expiresAt;
+    }
+
+    public static Builder builder() {
+        return new Builder(CurrencyIndex.size());
+    }
+
+    /**
+     * Returns the rate of the pair, or {@link Double#NaN} if the matrix has no unexpired rate for it.
+     */
+    public double get(String sourceCurrency, String targetCurrency, long nowMillis) {
+        int source = CurrencyIndex.indexOf(sourceCurrency);
+        int target = CurrencyIndex.indexOf(targetCurrency);
+        if (source < 0 || target < 0 || source >= size || target >= size || nowMillis >= expiresAt[source]) {
+            return Double.NaN;
+        }
+        return rates[source * size + target];
+    }
+
+    /**
+     * Returns the rate of the pair whether or not its row has expired, or {@link Double#NaN} if the matrix
+     * has no rate for it.
+     */
+    public double get(String sourceCurrency, String targetCurrency) {
+        int source = CurrencyIndex.indexOf(sourceCurrency);
+        int target = CurrencyIndex.indexOf(targetCurrency);
+        if (source < 0 || target < 0 || source >= size || target >= size) {
+            return Double.NaN;
+        }
+        return rates[source * size + target];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static final class Builder {
+        private final int size;
+        private final double[] rates;
+        private final long[] expiresAt;
+
+        private Builder(int size) {
+            this.size = size;
+            this.rates = new double[size * size];
+            this.expiresAt = new long[size];
+            Arrays.fill(rates, Double.NaN);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Copies the rates of {@code table} into the row of {@code baseCurrency}.
+         */
+        public Builder row(String baseCurrency, RateTable table, long expiresAtMillis) {
+            int source = CurrencyIndex.indexOf(baseCurrency);
+            if (source >= 0 && source < size) {
+                table.forEach((target, rate) -> {
+                    if (target < size) {
+                        rates[source * size + target] = rate;
+                    }
+                });
+                expiresAt[source] = expiresAtMillis;
+            }
+            return this;
+        }
+
+        public Builder rate(int source, int target, double rate) {
+            rates[source * size + target] = rate;
+            return this;
+        }
+
+        public Builder expiresAt(int source, long expiresAtMillis) {
+            expiresAt[source] = expiresAtMillis;
+            return this;
+        }
+
+        public RateMatrix build() {
+            return new RateMatrix(size, rates, expiresAt);
+        }
+    }
+}
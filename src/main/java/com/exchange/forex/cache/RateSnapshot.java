@@ -0,0 +1,16 @@
+package com.exchange.forex.cache;
+
+import com.exchange.forex.model.RateTable;
+
+import java.time.Instant;
+
+/**
+ * Rate table published by the external API for a single base currency, the time it was fetched and the
+ * time after which it must be fetched again before being served.
+ */
+public record RateSnapshot(String baseCurrency, RateTable rates, Instant fetchedAt, Instant expiresAt) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAt.toEpochMilli();
+    }
+}
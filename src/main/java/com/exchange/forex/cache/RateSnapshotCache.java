@@ -0,0 +1,266 @@
+package com.exchange.forex.cache;
+
+import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.integration.SingleFlight;
+import com.exchange.forex.integration.impl.ExchangeRateProviderService;
+import com.exchange.forex.model.RateQuote;
+import com.exchange.forex.model.RateTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the whole rate table of every known base currency in memory so that one fetch of
+ * {@code /latest/{base}} serves lookups for every target currency of that base.
+ * <p>
+ * Tables are refreshed every {@code exchange-rate.api.refresh-interval-minutes} and reloaded on read
+ * once they are older than {@code exchange-rate.cache.ttl-minutes}. Base currencies that have not been
+ * read for {@code exchange-rate.cache.idle-eviction-minutes} stop being refreshed and are evicted, as is
+ * the least recently read base once more than {@code exchange-rate.cache.max-base-currencies} are cached.
+ * Preloaded currencies are never evicted. While the external API cannot be reached, an expired table is
+ * served as stale until it is older than {@code exchange-rate.cache.max-staleness-minutes}.
+ * <p>
+ * Every cached table is also copied into a {@link RateMatrix} that is republished after each on-demand load
+ * and once per refresh, so a lookup of a cached pair neither locks nor allocates.
+ * <p>
+ * Concurrent loads of one base currency, on-demand or by the refresh, are merged: only the first caller stores
+ * the snapshot, republishes the matrix and publishes the {@link RateSnapshotRefreshedEvent}, and the others
+ * receive its entry.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateSnapshotCache {
+
+    /** Minimum time between two updates of an entry's last access, to keep reads from writing shared state. */
+    private static final long ACCESS_RESOLUTION_MILLIS = 1_000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile RateMatrix matrix = RateMatrix.EMPTY;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private final LongAdder matrixBuilds = new LongAdder();
+    private final SingleFlight<String, Entry> loads = new SingleFlight<>();
+
+    private final ExchangeRateProviderService exchangeRateProviderService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${exchange-rate.cache.preload-currencies:USD,EUR,GBP}")
+    private List<String> preloadCurrencies = List.of();
+    @Value("${exchange-rate.cache.ttl-minutes:90}")
+    private long ttlMinutes = 90;
+    @Value("${exchange-rate.cache.max-staleness-minutes:360}")
+    private long maxStalenessMinutes = 360;
+    @Value("${exchange-rate.cache.idle-eviction-minutes:240}")
+    private long idleEvictionMinutes = 240;
+    @Value("${exchange-rate.cache.max-base-currencies:50}")
+    private int maxBaseCurrencies = 50;
+    @Value("${exchange-rate.api.coalesced-wait-ms:10000}")
+    private long coalescedWaitMs = 10_000;
+
+    private Clock clock = Clock.systemUTC();
+
+    public double getExchangeRate(String sourceCurrency, String targetCurrency) throws ExternalServiceException {
+        long now = clock.millis();
+        double rate = lookup(sourceCurrency, targetCurrency, now);
+        return Double.isNaN(rate) ? quoteFromSnapshot(sourceCurrency, targetCurrency, now).rate() : rate;
+    }
+
+    public RateQuote getQuote(String sourceCurrency, String targetCurrency) throws ExternalServiceException {
+        long now = clock.millis();
+        double rate = lookup(sourceCurrency, targetCurrency, now);
+        return Double.isNaN(rate) ? quoteFromSnapshot(sourceCurrency, targetCurrency, now) : new RateQuote(rate, false);
+    }
+
+    /**
+     * Returns the snapshot of {@code baseCurrency}, fetching it if it is missing or expired. If that fetch
+     * fails, an expired snapshot is still returned while it is younger than
+     * {@code exchange-rate.cache.max-staleness-minutes}.
+     */
+    public RateSnapshot getSnapshot(String baseCurrency) throws ExternalServiceException {
+        long now = clock.millis();
+        Entry entry = entries.get(baseCurrency);
+        if (entry == null || entry.snapshot.isExpired(now)) {
+            entry = loadOrKeepStale(baseCurrency, entry, now);
+        }
+        entry.lastAccess = now;
+        return entry.snapshot;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Lookups answered from the rate matrix without touching a snapshot. */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /** Lookups that had to go to a snapshot, loading it if it was missing or expired. */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** Times an expired snapshot was served because it could not be reloaded. */
+    public long getStaleServedCount() {
+        return staleServed.sum();
+    }
+
+    /** The matrix of every cached table as last published; it does not change once returned. */
+    public RateMatrix getMatrix() {
+        return matrix;
+    }
+
+    /** Times the rate matrix was rebuilt. */
+    public long getMatrixBuildCount() {
+        return matrixBuilds.sum();
+    }
+
+    @Scheduled(
+        initialDelay = 0,
+        fixedRateString = "${exchange-rate.api.refresh-interval-minutes}",
+        timeUnit = TimeUnit.MINUTES
+    )
+    public void refresh() {
+        evictIdle();
+
+        Set<String> baseCurrencies = new LinkedHashSet<>(preloadCurrencies);
+        baseCurrencies.addAll(entries.keySet());
+
+        for (String baseCurrency : baseCurrencies) {
+            try {
+                fetch(baseCurrency);
+            } catch (ExternalServiceException e) {
+                log.warn("Could not refresh rates for {}, keeping previous snapshot: {}", baseCurrency, e.getMessage());
+            }
+        }
+        publishMatrix();
+    }
+
+    private double lookup(String sourceCurrency, String targetCurrency, long now) {
+        double rate = matrix.get(sourceCurrency, targetCurrency, now);
+        if (Double.isNaN(rate)) {
+            misses.increment();
+        } else {
+            hits.increment();
+            Entry entry = entries.get(sourceCurrency);
+            if (entry != null && now - entry.lastAccess >= ACCESS_RESOLUTION_MILLIS) {
+                entry.lastAccess = now;
+            }
+        }
+        return rate;
+    }
+
+    private RateQuote quoteFromSnapshot(String sourceCurrency, String targetCurrency, long now)
+        throws ExternalServiceException {
+        RateSnapshot snapshot = getSnapshot(sourceCurrency);
+        double rate = snapshot.rates().get(targetCurrency);
+        if (Double.isNaN(rate)) {
+            throw new ExternalServiceException("Exchange rate not available for the specified currency pair");
+        }
+        return new RateQuote(rate, snapshot.isExpired(now));
+    }
+
+    private Entry loadOrKeepStale(String baseCurrency, Entry entry, long now) throws ExternalServiceException {
+        try {
+            return load(baseCurrency);
+        } catch (ExternalServiceException e) {
+            if (entry == null || now - entry.snapshot.fetchedAt().toEpochMilli() > TimeUnit.MINUTES.toMillis(maxStalenessMinutes)) {
+                throw e;
+            }
+            staleServed.increment();
+            log.warn("Serving stale rates for {} fetched at {}: {}", baseCurrency, entry.snapshot.fetchedAt(), e.getMessage());
+            return entry;
+        }
+    }
+
+    private Entry load(String baseCurrency) throws ExternalServiceException {
+        return loads.execute(baseCurrency, Duration.ofMillis(coalescedWaitMs), () -> {
+            Entry entry = store(baseCurrency);
+            publishMatrix();
+            return entry;
+        });
+    }
+
+    /**
+     * Fetches and stores the table of {@code baseCurrency} without republishing the matrix, so that a refresh
+     * of every base currency rebuilds it once. Joins a load of the same base that is already in flight.
+     */
+    private Entry fetch(String baseCurrency) throws ExternalServiceException {
+        return loads.execute(baseCurrency, Duration.ofMillis(coalescedWaitMs), () -> store(baseCurrency));
+    }
+
+    private Entry store(String baseCurrency) throws ExternalServiceException {
+        RateTable rates = exchangeRateProviderService.getRates(baseCurrency);
+        Instant fetchedAt = clock.instant();
+        RateSnapshot snapshot = new RateSnapshot(baseCurrency, rates, fetchedAt, fetchedAt.plus(Duration.ofMinutes(ttlMinutes)));
+
+        Entry entry = entries.compute(baseCurrency, (currency, existing) -> {
+            Entry updated = existing != null ? existing : new Entry(fetchedAt.toEpochMilli());
+            updated.snapshot = snapshot;
+            return updated;
+        });
+        evictOverflow();
+        eventPublisher.publishEvent(new RateSnapshotRefreshedEvent(snapshot));
+        return entry;
+    }
+
+    /**
+     * Rebuilds the matrix from the current entries. Builds are serialized so that a slow build can never
+     * replace the matrix of a later one.
+     */
+    private synchronized void publishMatrix() {
+        RateMatrix.Builder builder = RateMatrix.builder();
+        for (Entry entry : entries.values()) {
+            RateSnapshot snapshot = entry.snapshot;
+            builder.row(snapshot.baseCurrency(), snapshot.rates(), snapshot.expiresAt().toEpochMilli());
+        }
+        matrix = builder.build();
+        matrixBuilds.increment();
+    }
+
+    private void evictIdle() {
+        long idleSince = clock.millis() - TimeUnit.MINUTES.toMillis(idleEvictionMinutes);
+        entries.entrySet().removeIf(e -> !preloadCurrencies.contains(e.getKey())
+            && e.getValue().lastAccess < idleSince);
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxBaseCurrencies) {
+            String coldest = entries.entrySet().stream()
+                .filter(e -> !preloadCurrencies.contains(e.getKey()))
+                .min(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+            if (coldest == null) {
+                return;
+            }
+            entries.remove(coldest);
+        }
+    }
+
+    private static final class Entry {
+        private volatile RateSnapshot snapshot;
+        private volatile long lastAccess;
+
+        private Entry(long lastAccess) {
+            this.lastAccess = lastAccess;
+        }
+    }
+}
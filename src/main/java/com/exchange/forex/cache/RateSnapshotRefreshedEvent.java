@@ -0,0 +1,7 @@
+package com.exchange.forex.cache;
+
+/**
+ * Published by {@link RateSnapshotCache} every time a base currency's rate table has been fetched.
+ */
+public record RateSnapshotRefreshedEvent(RateSnapshot snapshot) {
+}
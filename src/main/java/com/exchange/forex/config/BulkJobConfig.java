@@ -0,0 +1,28 @@
+package com.exchange.forex.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(BulkJobProperties.class)
+public class BulkJobConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor bulkJobExecutor(BulkJobProperties properties) {
+        ThreadFactory threadFactory = Thread.ofPlatform().name("bulk-job-", 1).factory();
+        return new ThreadPoolExecutor(
+            properties.getWorkerThreads(),
+            properties.getWorkerThreads(),
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            threadFactory,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
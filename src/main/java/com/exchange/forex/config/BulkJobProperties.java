@@ -0,0 +1,27 @@
+package com.exchange.forex.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of asynchronous bulk conversion jobs.
+ */
+@Data
+@ConfigurationProperties(prefix = "conversion.bulk.jobs")
+public class BulkJobProperties {
+
+    /** Number of jobs converted at the same time. */
+    private int workerThreads = 2;
+
+    /** Number of submitted jobs that may wait for a worker before new submissions are rejected. */
+    private int queueCapacity = 16;
+
+    /** Time a finished job and its result file are kept before they are evicted. */
+    private Duration ttl = Duration.ofHours(1);
+
+    /** Directory uploads and results are written to. */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "forex-bulk-jobs");
+}
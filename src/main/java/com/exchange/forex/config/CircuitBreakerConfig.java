@@ -0,0 +1,24 @@
+package com.exchange.forex.config;
+
+import com.exchange.forex.integration.CircuitBreaker;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(CircuitBreakerProperties.class)
+public class CircuitBreakerConfig {
+
+    @Bean
+    public CircuitBreaker exchangeRateCircuitBreaker(CircuitBreakerProperties properties) {
+        return new CircuitBreaker(
+            properties.getFailureRateThreshold(),
+            properties.getMinimumCalls(),
+            properties.getWindowSize(),
+            properties.getOpenDuration(),
+            Clock.systemUTC()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.exchange.forex.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the circuit breaker guarding calls to the exchange rate API.
+ */
+@Data
+@ConfigurationProperties(prefix = "exchange-rate.circuit-breaker")
+public class CircuitBreakerProperties {
+
+    /** Percentage of failed calls in the window at which the circuit opens. */
+    private int failureRateThreshold = 50;
+
+    /** Number of calls that must be recorded before the failure rate is evaluated. */
+    private int minimumCalls = 5;
+
+    /** Number of most recent calls the failure rate is computed over. */
+    private int windowSize = 20;
+
+    /** Time the circuit stays open before a trial call is let through. */
+    private Duration openDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,68 @@
+package com.exchange.forex.config;
+
+import com.exchange.forex.history.HistoryPersistenceType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Limits of the in-memory conversion history. Whichever limit is reached first evicts the oldest conversions.
+ */
+@Data
+@ConfigurationProperties(prefix = "conversion.history")
+public class HistoryProperties {
+
+    /** Maximum number of conversions kept. */
+    private long maxEntries = 1_000_000;
+
+    /** Conversions older than this are evicted. */
+    private Duration maxAge = Duration.ofDays(1);
+
+    /** Maximum estimated heap used by the kept conversions. */
+    private DataSize maxBytes = DataSize.ofMegabytes(512);
+
+    /** Width of the time buckets conversions are grouped in; age eviction drops whole buckets. */
+    private Duration bucketDuration = Duration.ofMinutes(1);
+
+    private Persistence persistence = new Persistence();
+
+    @Data
+    public static class Persistence {
+
+        /** Where the history is persisted beyond the in-memory limits. */
+        private HistoryPersistenceType type = HistoryPersistenceType.JPA;
+
+        /** Maximum number of conversions inserted per JDBC batch. */
+        private int batchSize = 500;
+
+        /** Longest time a queued conversion waits for its batch to fill before it is written. */
+        private Duration maxDelay = Duration.ofMillis(200);
+
+        /** Conversions waiting to be written; further conversions are not persisted while it is full. */
+        private int queueCapacity = 100_000;
+
+        private Journal journal = new Journal();
+    }
+
+    @Data
+    public static class Journal {
+
+        /** Directory the journal segments are written to. */
+        private Path directory = Path.of("data", "journal");
+
+        /** Size of a segment file; a new segment is started when the current one is full. */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /** Interval at which appended records are forced to disk; records appended since the last force can be lost on a crash. */
+        private Duration syncInterval = Duration.ofMillis(50);
+
+        /**
+         * Full segments whose newest conversion is older than this are deleted, so conversions older than that
+         * can no longer be queried once evicted from memory; unset keeps every segment.
+         */
+        private Duration retention;
+    }
+}
@@ -0,0 +1,48 @@
+package com.exchange.forex.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings of the HTTP client used to call the exchange rate API.
+ */
+@Data
+@ConfigurationProperties(prefix = "exchange-rate.http")
+public class HttpClientProperties {
+
+    /** Maximum number of pooled connections across all routes. */
+    private int maxConnections = 50;
+
+    /** Maximum number of pooled connections to a single host. */
+    private int maxConnectionsPerRoute = 20;
+
+    /** Time allowed to establish a TCP connection. */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /** Socket timeout: time allowed between two packets on an established connection. */
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Time allowed without receiving data while waiting for the response once the request is sent. Like
+     * {@code readTimeout} this is an inactivity timeout, not a deadline for the whole response; a slow but
+     * steady response can take longer.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    /** Time a request may wait for a free connection from the pool. */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    /** Keep-alive used when the server does not send a Keep-Alive header. */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /** Idle time after which pooled connections are closed. */
+    private Duration idleEvictionTime = Duration.ofSeconds(30);
+
+    /** Maximum lifetime of a pooled connection. */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /** Use the JDK HTTP client with HTTP/2 instead of the pooled HTTP/1.1 client. */
+    private boolean http2 = false;
+}
@@ -0,0 +1,150 @@
+package com.exchange.forex.controller;
+
+import com.exchange.forex.dto.response.BulkJobResponse;
+import com.exchange.forex.exception.BulkJobNotFoundException;
+import com.exchange.forex.model.BulkJob;
+import com.exchange.forex.model.BulkJobStatus;
+import com.exchange.forex.service.BulkConversionJobService;
+import com.exchange.forex.stream.StreamFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/bulk-jobs")
+@Tag(name = "Bulk Conversion Jobs API", description = "Asynchronous bulk conversion: submit a CSV, poll progress and download the results")
+public class BulkConversionJobController {
+
+    private final BulkConversionJobService jobService;
+
+    @Operation(
+        summary = "Submit a bulk conversion job",
+        description = "Stores the CSV file and queues it for conversion. The CSV should have columns: " +
+            "amount,sourceCurrency,targetCurrency. Returns immediately with the job id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Job accepted"),
+        @ApiResponse(responseCode = "400", description = "Invalid CSV file or unsupported format"),
+        @ApiResponse(responseCode = "503", description = "Too many jobs are queued")
+    })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkJobResponse> submitJob(
+        @Parameter(
+            description = "CSV file containing conversion requests. Format: amount,sourceCurrency,targetCurrency",
+            required = true
+        )
+        @RequestParam("file") MultipartFile file,
+        @Parameter(description = "Format of the result file: ndjson or csv", example = "ndjson")
+        @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty");
+        }
+        try {
+            BulkJob job = jobService.submit(file.getInputStream(), StreamFormat.from(format));
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/bulk-jobs/" + job.getId()))
+                .body(toResponse(job));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many bulk jobs are queued, try again later");
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error storing file: " + e.getMessage());
+        }
+    }
+
+    @Operation(
+        summary = "Get bulk conversion job status",
+        description = "Returns the state of the job, the number of processed and failed rows and the throughput"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Job status retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Unknown or evicted job")
+    })
+    @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkJobResponse> getJob(
+        @Parameter(description = "Job id returned on submission")
+        @PathVariable String jobId
+    ) {
+        try {
+            return ResponseEntity.ok(toResponse(jobService.getJob(jobId)));
+        } catch (BulkJobNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @Operation(
+        summary = "Download bulk conversion results",
+        description = "Downloads the result file of a completed job in the format chosen on submission"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Result file"),
+        @ApiResponse(responseCode = "404", description = "Unknown or evicted job"),
+        @ApiResponse(responseCode = "409", description = "Job has not completed")
+    })
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<Resource> getJobResult(
+        @Parameter(description = "Job id returned on submission")
+        @PathVariable String jobId
+    ) {
+        BulkJob job;
+        InputStream result;
+        try {
+            job = jobService.getJob(jobId);
+            if (job.getStatus() != BulkJobStatus.COMPLETED) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Bulk job is " + job.getStatus());
+            }
+            result = jobService.openResult(job);
+        } catch (BulkJobNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error reading result file: " + e.getMessage());
+        }
+        // The converter closes the stream once written, which lets the job be evicted again.
+        return ResponseEntity.ok()
+            .contentType(job.getFormat().getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(job.getId() + "." + job.getFormat().getFileExtension())
+                .build()
+                .toString())
+            .body(new InputStreamResource(result));
+    }
+
+    private BulkJobResponse toResponse(BulkJob job) {
+        BulkJobResponse response = new BulkJobResponse();
+        response.setJobId(job.getId());
+        response.setStatus(job.getStatus());
+        response.setProcessedCount(job.getProcessedCount());
+        response.setFailedCount(job.getFailedCount());
+        response.setRowsPerSecond(job.getRowsPerSecond(Instant.now()));
+        response.setSubmittedAt(job.getSubmittedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setErrorMessage(job.getErrorMessage());
+        if (job.getStatus() == BulkJobStatus.COMPLETED) {
+            response.setResultUrl("/api/bulk-jobs/" + job.getId() + "/result");
+        }
+        return response;
+    }
+}
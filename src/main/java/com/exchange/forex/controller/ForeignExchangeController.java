@@ -1,9 +1,18 @@
 package com.exchange.forex.controller;
 
+import com.exchange.forex.analytics.DailyAnalytics;
 import com.exchange.forex.dto.request.ConversionRequest;
 import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.history.HistoryStats;
+import com.exchange.forex.model.RateQuote;
 import com.exchange.forex.service.CurrencyConversionService;
 import com.exchange.forex.service.ExchangeRateService;
+import com.exchange.forex.stream.ConversionExportWriter;
+import com.exchange.forex.stream.ConversionStreamWriter;
+import com.exchange.forex.stream.ConversionStreamWriters;
+import com.exchange.forex.stream.StreamFormat;
+import com.exchange.forex.timeseries.RateCandle;
+import com.exchange.forex.timeseries.RatePoint;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,16 +22,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -30,12 +46,16 @@ import java.util.Map;
 @RequestMapping("/api")
 @Tag(name = "Forex Exchange API", description = "API endpoints for currency conversion and exchange rate operations")
 public class ForeignExchangeController {
+    static final String RATE_STALE_HEADER = "X-Rate-Stale";
+
     private final CurrencyConversionService conversionService;
     private final ExchangeRateService exchangeRateService;
+    private final ConversionStreamWriters streamWriters;
 
     @Operation(
         summary = "Get current exchange rate",
-        description = "Retrieves the current exchange rate between two currencies using ISO 4217 currency codes"
+        description = "Retrieves the current exchange rate between two currencies using ISO 4217 currency codes. " +
+            "The X-Rate-Stale header is true when the rate was served past its TTL because the rate provider was unavailable"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Exchange rate retrieved successfully"),
@@ -50,8 +70,10 @@ public class ForeignExchangeController {
         @RequestParam String targetCurrency
     ) {
         try {
-            Double exchangeRate = exchangeRateService.getExchangeRate(sourceCurrency, targetCurrency);
-            return ResponseEntity.ok(exchangeRate);
+            RateQuote quote = exchangeRateService.getRateQuote(sourceCurrency, targetCurrency);
+            return ResponseEntity.ok()
+                .header(RATE_STALE_HEADER, String.valueOf(quote.stale()))
+                .body(quote.rate());
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
@@ -59,6 +81,68 @@ public class ForeignExchangeController {
         }
     }
 
+    @Operation(
+        summary = "Get a past exchange rate",
+        description = "Returns the rate of a currency pair as last fetched from the rate provider at or before the " +
+            "given time, together with the time it was fetched"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exchange rate retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid currency codes provided"),
+        @ApiResponse(responseCode = "404", description = "No rate of the pair was fetched by then")
+    })
+    @GetMapping(value = "/exchange-rate/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RatePoint> getExchangeRateAsOf(
+        @Parameter(description = "Source currency code (ISO 4217)", example = "USD")
+        @RequestParam String sourceCurrency,
+        @Parameter(description = "Target currency code (ISO 4217)", example = "EUR")
+        @RequestParam String targetCurrency,
+        @Parameter(description = "Point in time (ISO 8601 instant)", example = "2024-03-21T10:15:00Z")
+        @RequestParam Instant at
+    ) {
+        RatePoint point;
+        try {
+            point = exchangeRateService.getRateAsOf(sourceCurrency, targetCurrency, at);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (point == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "No exchange rate recorded for " + sourceCurrency + "/" + targetCurrency + " at " + at);
+        }
+        return ResponseEntity.ok(point);
+    }
+
+    @Operation(
+        summary = "Get exchange rate candles",
+        description = "Returns the open, high, low and close rate of a currency pair for every interval of a time " +
+            "range in which the rate was fetched"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Candles retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid currency codes, range or interval")
+    })
+    @GetMapping(value = "/exchange-rate/ohlc", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<RateCandle>> getExchangeRateCandles(
+        @Parameter(description = "Source currency code (ISO 4217)", example = "USD")
+        @RequestParam String sourceCurrency,
+        @Parameter(description = "Target currency code (ISO 4217)", example = "EUR")
+        @RequestParam String targetCurrency,
+        @Parameter(description = "Start of the range, inclusive (ISO 8601 instant)", example = "2024-03-21T00:00:00Z")
+        @RequestParam Instant from,
+        @Parameter(description = "End of the range, exclusive (ISO 8601 instant)", example = "2024-03-22T00:00:00Z")
+        @RequestParam Instant to,
+        @Parameter(description = "Candle length, such as 15m, 1h or 1d", example = "1h")
+        @RequestParam(defaultValue = "1h") String interval
+    ) {
+        try {
+            return ResponseEntity.ok(exchangeRateService.getRateCandles(sourceCurrency, targetCurrency, from, to,
+                DurationStyle.detectAndParse(interval)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @Operation(
         summary = "Convert currency",
         description = "Converts an amount from one currency to another and stores the conversion history"
@@ -129,6 +213,108 @@ public class ForeignExchangeController {
         }
     }
 
+    @Operation(
+        summary = "Get conversion history after a cursor",
+        description = "Continues a date query of the conversion history from the nextCursor of a previous page. " +
+            "Pages follow conversion time order and are not shifted by conversions added in the meantime"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Conversion history retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    @GetMapping(value = "/conversions", params = "cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> getConversionHistoryAfter(
+        @Parameter(description = "nextCursor returned with the previous page")
+        @RequestParam String cursor,
+        @Parameter(description = "Number of records per page", example = "10")
+        @RequestParam(defaultValue = "10") int size
+    ) {
+        try {
+            return ResponseEntity.ok(conversionService.getConversionHistoryAfter(cursor, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                "An error occurred while retrieving history: " + e.getMessage());
+        }
+    }
+
+    @Operation(
+        summary = "Get conversion history statistics",
+        description = "Reports the number of conversions kept in history, their estimated heap size and " +
+            "the number of conversions evicted by age, entry limit and byte limit"
+    )
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @GetMapping(value = "/conversions/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<HistoryStats> getConversionHistoryStats() {
+        return ResponseEntity.ok(conversionService.getHistoryStats());
+    }
+
+    @Operation(
+        summary = "Get conversion analytics",
+        description = "Reports the number of conversions made on a day, the number of currency pairs converted " +
+            "and the busiest pairs with their conversion counts and summed source and converted amounts"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Analytics retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid number of top pairs")
+    })
+    @GetMapping(value = "/conversions/analytics", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DailyAnalytics> getConversionAnalytics(
+        @Parameter(description = "Date to report (ISO format: YYYY-MM-DD), today if omitted", example = "2024-03-21")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @Parameter(description = "Number of busiest pairs to return", example = "10")
+        @RequestParam(defaultValue = "10") int top
+    ) {
+        try {
+            return ResponseEntity.ok(conversionService.getAnalytics(date != null ? date : LocalDate.now(), top));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(
+        summary = "Export conversion history",
+        description = "Streams every conversion made from one date through another, oldest first, as the history " +
+            "reads them. format=csv writes CSV rows under a header, format=ndjson writes one JSON object per line"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Conversions are being streamed"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range or unsupported format")
+    })
+    @GetMapping(value = "/conversions/export")
+    public ResponseEntity<StreamingResponseBody> exportConversionHistory(
+        @Parameter(description = "First date to export (ISO format: YYYY-MM-DD)", example = "2024-03-01", required = true)
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @Parameter(description = "Last date to export (ISO format: YYYY-MM-DD)", example = "2024-03-31", required = true)
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @Parameter(description = "Output format: csv or ndjson", example = "csv")
+        @RequestParam(defaultValue = "csv") String format
+    ) {
+        StreamFormat streamFormat;
+        try {
+            streamFormat = StreamFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Export range must not end before it starts");
+        }
+
+        StreamingResponseBody body = out -> {
+            try (ConversionExportWriter writer = streamWriters.openExport(streamFormat, out)) {
+                conversionService.exportConversions(from, to, writer);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(streamFormat.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("conversions-" + from + "-" + to + "." + streamFormat.getFileExtension())
+                .build()
+                .toString())
+            .body(body);
+    }
+
     @Operation(
         summary = "Bulk currency conversion",
         description = "Converts multiple currency amounts using a CSV file. The CSV should have columns: " +
@@ -161,4 +347,48 @@ public class ForeignExchangeController {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred during bulk conversion: " + e.getMessage());
         }
     }
+
+    @Operation(
+        summary = "Streaming bulk currency conversion",
+        description = "Converts a CSV file like /bulk-convert but streams each result as soon as it is ready, " +
+            "followed by the totals. format=ndjson writes one JSON object per line, format=csv writes CSV rows " +
+            "and a trailing '#' comment line"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Results are being streamed"),
+        @ApiResponse(responseCode = "400", description = "Invalid CSV file or unsupported format")
+    })
+    @PostMapping(value = "/bulk-convert", params = "format", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBulkConvertCurrency(
+        @Parameter(
+            description = "CSV file containing conversion requests. Format: amount,sourceCurrency,targetCurrency",
+            required = true
+        )
+        @RequestParam("file") MultipartFile file,
+        @Parameter(description = "Output format: ndjson or csv", example = "ndjson")
+        @RequestParam String format
+    ) {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty");
+        }
+        StreamFormat streamFormat;
+        InputStream inputStream;
+        try {
+            streamFormat = StreamFormat.from(format);
+            inputStream = file.getInputStream();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error reading file: " + e.getMessage());
+        }
+
+        StreamingResponseBody body = out -> {
+            try (inputStream; ConversionStreamWriter writer = streamWriters.open(streamFormat, out)) {
+                conversionService.streamBulkConversions(inputStream, writer);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(streamFormat.getMediaType())
+            .body(body);
+    }
 }
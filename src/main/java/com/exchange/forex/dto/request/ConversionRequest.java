@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
@@ -32,6 +33,7 @@ public class ConversionRequest {
     )
     @NotBlank(message = "Source currency is required")
     @Size(min = 3, max = 3, message = "Source currency must be 3 characters")
+    @Pattern(regexp = "[A-Z]{3}", message = "Source currency must be three upper-case letters")
     private String sourceCurrency;
 
     @Schema(
@@ -43,5 +45,6 @@ public class ConversionRequest {
     )
     @NotBlank(message = "Target currency is required")
     @Size(min = 3, max = 3, message = "Target currency must be 3 characters")
+    @Pattern(regexp = "[A-Z]{3}", message = "Target currency must be three upper-case letters")
     private String targetCurrency;
 }
@@ -0,0 +1,60 @@
+package com.exchange.forex.dto.response;
+
+import com.exchange.forex.model.BulkJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Schema(description = "Status and progress of an asynchronous bulk conversion job")
+public class BulkJobResponse {
+
+    @Schema(
+        description = "Identifier of the job",
+        example = "3f1c2b7e-8a4d-4b8e-9a55-1f0c3d2e4a6b"
+    )
+    private String jobId;
+
+    @Schema(
+        description = "Current state of the job",
+        example = "RUNNING"
+    )
+    private BulkJobStatus status;
+
+    @Schema(
+        description = "Number of CSV rows converted or rejected so far",
+        example = "12000"
+    )
+    private int processedCount;
+
+    @Schema(
+        description = "Number of CSV rows that could not be converted",
+        example = "3"
+    )
+    private int failedCount;
+
+    @Schema(
+        description = "Average number of rows processed per second since the job started",
+        example = "2500.0"
+    )
+    private double rowsPerSecond;
+
+    @Schema(description = "Time the job was submitted")
+    private Instant submittedAt;
+
+    @Schema(description = "Time a worker started the job")
+    private Instant startedAt;
+
+    @Schema(description = "Time the job completed or failed")
+    private Instant finishedAt;
+
+    @Schema(description = "Reason the job failed")
+    private String errorMessage;
+
+    @Schema(
+        description = "Path the results can be downloaded from once the job is completed",
+        example = "/api/bulk-jobs/3f1c2b7e-8a4d-4b8e-9a55-1f0c3d2e4a6b/result"
+    )
+    private String resultUrl;
+}
@@ -46,6 +46,12 @@ public class ConversionResponse {
     )
     private double exchangeRate;
 
+    @Schema(
+        description = "Whether the exchange rate was served from a snapshot past its TTL because the rate provider was unavailable",
+        example = "false"
+    )
+    private boolean staleRate;
+
     @Schema(
         description = "Timestamp of the conversion",
         example = "2024-03-21T14:30:00"
@@ -0,0 +1,7 @@
+package com.exchange.forex.exception;
+
+public class BulkJobNotFoundException extends RuntimeException {
+    public BulkJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,10 @@
 package com.exchange.forex.exception;
 
-public class CurrencyNotFoundException extends RuntimeException {
+/**
+ * The exchange rate API does not know the requested currency. Extends {@link IllegalArgumentException} so that it
+ * is reported as a client error wherever invalid input is.
+ */
+public class CurrencyNotFoundException extends IllegalArgumentException {
     public CurrencyNotFoundException(String message) {
         super(message);
     }
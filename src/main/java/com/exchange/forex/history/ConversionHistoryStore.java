@@ -0,0 +1,219 @@
+package com.exchange.forex.history;
+
+import com.exchange.forex.config.HistoryProperties;
+import com.exchange.forex.dto.response.ConversionResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Conversion history bounded by {@code conversion.history.max-entries}, {@code max-age} and {@code max-bytes}.
+ * <p>
+ * Conversions are indexed by transaction id and by day of {@code conversionDate}, each day holding its conversions
+ * in time order, so id lookups are a map get and date queries only walk the matching day.
+ * <p>
+ * For eviction, conversions are also appended to time buckets of {@code bucket-duration} keyed by the time they were stored.
+ * Age eviction drops whole buckets; the entry and byte limits remove the oldest conversions one at a time
+ * from the head of the oldest bucket. Only one thread evicts at a time, the others skip it, so the limits
+ * can be exceeded briefly while an eviction is running.
+ */
+@Component
+public class ConversionHistoryStore {
+
+    /** Rough heap cost of a stored conversion besides its transaction id: the response, its values and the index entries. */
+    private static final int ENTRY_OVERHEAD_BYTES = 480;
+
+    private final ConcurrentNavigableMap<Long, Queue<ConversionResponse>> buckets = new ConcurrentSkipListMap<>();
+    private final Map<String, ConversionResponse> byId = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<LocalDate, DayPartition> byDay = new ConcurrentSkipListMap<>();
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final LongAdder evictedByAge = new LongAdder();
+    private final LongAdder evictedByEntries = new LongAdder();
+    private final LongAdder evictedByBytes = new LongAdder();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private volatile LocalDateTime incompleteThrough;
+
+    private final long maxEntries;
+    private final long maxAgeMillis;
+    private final long maxBytes;
+    private final long bucketMillis;
+
+    private Clock clock = Clock.systemUTC();
+
+    public ConversionHistoryStore(HistoryProperties properties) {
+        this.maxEntries = properties.getMaxEntries();
+        this.maxAgeMillis = properties.getMaxAge().toMillis();
+        this.maxBytes = properties.getMaxBytes().toBytes();
+        this.bucketMillis = Math.max(1, properties.getBucketDuration().toMillis());
+    }
+
+    public void add(ConversionResponse conversion) {
+        add(conversion, currentBucket());
+    }
+
+    /**
+     * Adds a conversion recovered after a restart, bucketed by its {@code conversionDate} so it ages out as if it
+     * had been added when it was made.
+     */
+    public void restore(ConversionResponse conversion) {
+        long madeAt = conversion.getConversionDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        add(conversion, madeAt - Math.floorMod(madeAt, bucketMillis));
+    }
+
+    private void add(ConversionResponse conversion, long bucket) {
+        buckets.computeIfAbsent(bucket, key -> new ConcurrentLinkedQueue<>()).add(conversion);
+        byId.put(conversion.getTransactionId(), conversion);
+        byDay.computeIfAbsent(conversion.getConversionDate().toLocalDate(), day -> new DayPartition()).add(conversion);
+        entries.incrementAndGet();
+        estimatedBytes.addAndGet(sizeOf(conversion));
+
+        Map.Entry<Long, Queue<ConversionResponse>> oldest = buckets.firstEntry();
+        if (entries.get() > maxEntries || estimatedBytes.get() > maxBytes
+            || (oldest != null && isExpired(oldest.getKey(), clock.millis()))) {
+            evict();
+        }
+    }
+
+    public ConversionResponse get(String transactionId) {
+        return byId.get(transactionId);
+    }
+
+    /** The conversions made on {@code date} from {@code offset}, oldest first. */
+    public HistoryPage findByDate(LocalDate date, long offset, int limit) {
+        DayPartition partition = byDay.get(date);
+        return partition != null ? partition.page(offset, limit) : HistoryPage.empty();
+    }
+
+    /**
+     * The conversions made on the day of {@code cursor} that are ordered after it, oldest first. Conversions
+     * added or evicted between two calls do not shift the pages that follow.
+     */
+    public HistoryPage findAfter(HistoryCursor cursor, int limit) {
+        DayPartition partition = byDay.get(cursor.conversionDate().toLocalDate());
+        return partition != null ? partition.pageAfter(cursor, limit) : HistoryPage.empty();
+    }
+
+    /**
+     * Hands every conversion made on {@code date} to {@code consumer}, oldest first, without copying the day.
+     * The walk is weakly consistent: conversions added or evicted meanwhile may or may not be seen.
+     *
+     * @return the number of conversions handed over
+     */
+    public long forEachOnDate(LocalDate date, Consumer<ConversionResponse> consumer) {
+        DayPartition partition = byDay.get(date);
+        return partition != null ? partition.forEach(consumer) : 0;
+    }
+
+    /**
+     * Whether every conversion of {@code date} is held. Eviction goes oldest first, so only days up to the newest
+     * evicted conversion, or up to the newest conversion made before a restart, can be incomplete.
+     */
+    public boolean isComplete(LocalDate date) {
+        LocalDateTime incomplete = incompleteThrough;
+        return incomplete == null || date.isAfter(incomplete.toLocalDate());
+    }
+
+    /** Records that conversions up to {@code conversionDate} exist that this store does not hold. */
+    public synchronized void markIncompleteThrough(LocalDateTime conversionDate) {
+        if (incompleteThrough == null || conversionDate.isAfter(incompleteThrough)) {
+            incompleteThrough = conversionDate;
+        }
+    }
+
+    public HistoryStats getStats() {
+        return new HistoryStats(entries.get(), estimatedBytes.get(), buckets.size(),
+            evictedByAge.sum(), evictedByEntries.sum(), evictedByBytes.sum());
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = clock.millis();
+            Map.Entry<Long, Queue<ConversionResponse>> oldest;
+            while ((oldest = buckets.firstEntry()) != null && isExpired(oldest.getKey(), now)) {
+                buckets.remove(oldest.getKey());
+                for (ConversionResponse conversion : oldest.getValue()) {
+                    remove(conversion);
+                    evictedByAge.increment();
+                }
+            }
+
+            while (entries.get() > maxEntries || estimatedBytes.get() > maxBytes) {
+                boolean overEntries = entries.get() > maxEntries;
+                ConversionResponse conversion = pollOldest();
+                if (conversion == null) {
+                    break;
+                }
+                remove(conversion);
+                (overEntries ? evictedByEntries : evictedByBytes).increment();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private ConversionResponse pollOldest() {
+        long current = currentBucket();
+        for (Map.Entry<Long, Queue<ConversionResponse>> bucket : buckets.entrySet()) {
+            ConversionResponse conversion = bucket.getValue().poll();
+            if (conversion != null) {
+                return conversion;
+            }
+            // The current bucket may still receive conversions, so only older ones are dropped once empty.
+            if (bucket.getKey() < current) {
+                buckets.remove(bucket.getKey(), bucket.getValue());
+            }
+        }
+        return null;
+    }
+
+    private void remove(ConversionResponse conversion) {
+        byId.remove(conversion.getTransactionId(), conversion);
+        markIncompleteThrough(conversion.getConversionDate());
+        LocalDate day = conversion.getConversionDate().toLocalDate();
+        DayPartition partition = byDay.get(day);
+        if (partition != null) {
+            partition.remove(conversion);
+            // Only days before the newest one are dropped once empty; the newest may still receive conversions.
+            Map.Entry<LocalDate, DayPartition> newest = byDay.lastEntry();
+            if (partition.size() == 0 && newest != null && day.isBefore(newest.getKey())) {
+                byDay.remove(day, partition);
+            }
+        }
+        entries.decrementAndGet();
+        estimatedBytes.addAndGet(-sizeOf(conversion));
+    }
+
+    private long currentBucket() {
+        long now = clock.millis();
+        return now - Math.floorMod(now, bucketMillis);
+    }
+
+    /** A bucket expires once the newest conversion it can hold is older than {@code max-age}. */
+    private boolean isExpired(long bucket, long now) {
+        return bucket + bucketMillis <= now - maxAgeMillis;
+    }
+
+    private static long sizeOf(ConversionResponse conversion) {
+        return ENTRY_OVERHEAD_BYTES + 2L * conversion.getTransactionId().length();
+    }
+}
@@ -0,0 +1,76 @@
+package com.exchange.forex.history;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The conversions of one day ordered by conversion time, ties broken by transaction id, with a size
+ * counter so totals do not need a traversal.
+ */
+class DayPartition {
+
+    static final Comparator<ConversionResponse> ORDER = Comparator
+        .comparing(ConversionResponse::getConversionDate)
+        .thenComparing(ConversionResponse::getTransactionId);
+
+    private final NavigableSet<ConversionResponse> conversions = new ConcurrentSkipListSet<>(ORDER);
+    private final AtomicInteger size = new AtomicInteger();
+
+    void add(ConversionResponse conversion) {
+        if (conversions.add(conversion)) {
+            size.incrementAndGet();
+        }
+    }
+
+    void remove(ConversionResponse conversion) {
+        if (conversions.remove(conversion)) {
+            size.decrementAndGet();
+        }
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /** {@code limit} conversions from {@code offset}; deep pages cost a walk over the skipped ones. */
+    HistoryPage page(long offset, int limit) {
+        Iterator<ConversionResponse> iterator = conversions.iterator();
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        return collect(iterator, limit);
+    }
+
+    /** {@code limit} conversions ordered after {@code cursor}, located with one skip-list search. */
+    HistoryPage pageAfter(HistoryCursor cursor, int limit) {
+        return collect(conversions.tailSet(cursor.toProbe(), false).iterator(), limit);
+    }
+
+    long forEach(Consumer<ConversionResponse> consumer) {
+        long count = 0;
+        for (ConversionResponse conversion : conversions) {
+            consumer.accept(conversion);
+            count++;
+        }
+        return count;
+    }
+
+    private HistoryPage collect(Iterator<ConversionResponse> iterator, int limit) {
+        List<ConversionResponse> content = new ArrayList<>(Math.min(limit, size()));
+        while (content.size() < limit && iterator.hasNext()) {
+            content.add(iterator.next());
+        }
+        HistoryCursor nextCursor = !content.isEmpty() && iterator.hasNext()
+            ? HistoryCursor.after(content.get(content.size() - 1))
+            : null;
+        return new HistoryPage(content, size(), nextCursor);
+    }
+}
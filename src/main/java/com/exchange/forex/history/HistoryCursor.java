@@ -0,0 +1,49 @@
+package com.exchange.forex.history;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the conversion history after a given conversion, passed to clients as an opaque URL-safe token
+ * encoding its {@code conversionDate} and {@code transactionId}.
+ */
+public record HistoryCursor(LocalDateTime conversionDate, String transactionId) {
+
+    private static final char SEPARATOR = '|';
+
+    public static HistoryCursor after(ConversionResponse conversion) {
+        return new HistoryCursor(conversion.getConversionDate(), conversion.getTransactionId());
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code token} was not produced by {@link #encode()}
+     */
+    public static HistoryCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == value.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new HistoryCursor(LocalDateTime.parse(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String value = conversionDate.toString() + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    ConversionResponse toProbe() {
+        ConversionResponse probe = new ConversionResponse();
+        probe.setConversionDate(conversionDate);
+        probe.setTransactionId(transactionId);
+        return probe;
+    }
+}
@@ -0,0 +1,16 @@
+package com.exchange.forex.history;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+
+import java.util.List;
+
+/**
+ * A page of conversions, the number of conversions matching the query across all pages, and the cursor to
+ * continue after this page, {@code null} if it is the last one.
+ */
+public record HistoryPage(List<ConversionResponse> content, long totalElements, HistoryCursor nextCursor) {
+
+    public static HistoryPage empty() {
+        return new HistoryPage(List.of(), 0, null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.exchange.forex.history;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Durable copy of the conversion history, selected with {@code conversion.history.persistence.type}. It answers
+ * the queries the bounded in-memory {@link ConversionHistoryStore} can no longer answer completely, such as
+ * evicted days or history from before a restart.
+ */
+public interface HistoryPersistence {
+
+    /**
+     * Queues {@code conversion} to be stored. Must not block the caller on I/O, so a conversion may not be
+     * visible to the find methods for a short while.
+     */
+    void append(ConversionResponse conversion);
+
+    /** Returns the stored conversion, or {@code null} if there is none. */
+    ConversionResponse findById(String transactionId);
+
+    HistoryPage findByDate(LocalDate date, long offset, int limit);
+
+    HistoryPage findAfter(HistoryCursor cursor, int limit);
+
+    /**
+     * Hands every stored conversion made on {@code date} to {@code consumer} while reading them, without
+     * collecting the day first.
+     *
+     * @return the number of conversions handed over
+     */
+    long forEachOnDate(LocalDate date, Consumer<ConversionResponse> consumer);
+
+    /**
+     * Called once on startup to prepare {@code store} for the history persisted by earlier runs, either by
+     * loading it into the store or by marking the days the store cannot answer.
+     */
+    void restore(ConversionHistoryStore store);
+}
@@ -0,0 +1,10 @@
+package com.exchange.forex.history;
+
+public enum HistoryPersistenceType {
+    /** History is only kept in memory. */
+    NONE,
+    /** History is written behind to the JPA datasource in JDBC batches. */
+    JPA,
+    /** History is appended to memory-mapped journal segments and replayed into memory on startup. */
+    JOURNAL
+}
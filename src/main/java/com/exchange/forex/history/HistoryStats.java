@@ -0,0 +1,14 @@
+package com.exchange.forex.history;
+
+/**
+ * Occupancy of the conversion history and the number of conversions evicted since startup, by cause.
+ */
+public record HistoryStats(
+    long entries,
+    long estimatedBytes,
+    int buckets,
+    long evictedByAge,
+    long evictedByEntries,
+    long evictedByBytes
+) {
+}
@@ -0,0 +1,49 @@
+package com.exchange.forex.history;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Used when the history is only kept in memory. Nothing is stored, and every query is answered by
+ * {@link ConversionHistoryStore}, also for days the store has partly evicted: what it still holds is all there is.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "conversion.history.persistence.type", havingValue = "none")
+public class NoHistoryPersistence implements HistoryPersistence {
+
+    private final ConversionHistoryStore store;
+
+    @Override
+    public void append(ConversionResponse conversion) {
+    }
+
+    @Override
+    public ConversionResponse findById(String transactionId) {
+        return store.get(transactionId);
+    }
+
+    @Override
+    public HistoryPage findByDate(LocalDate date, long offset, int limit) {
+        return store.findByDate(date, offset, limit);
+    }
+
+    @Override
+    public HistoryPage findAfter(HistoryCursor cursor, int limit) {
+        return store.findAfter(cursor, limit);
+    }
+
+    @Override
+    public long forEachOnDate(LocalDate date, Consumer<ConversionResponse> consumer) {
+        return store.forEachOnDate(date, consumer);
+    }
+
+    @Override
+    public void restore(ConversionHistoryStore store) {
+    }
+}
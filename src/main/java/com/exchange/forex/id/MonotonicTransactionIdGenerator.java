@@ -0,0 +1,91 @@
+package com.exchange.forex.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered ids of 80 bits, written as {@value #LENGTH} Crockford base32 characters so that they sort as
+ * strings in the order they were generated:
+ * <pre>
+ * 48 bits  milliseconds since the epoch
+ * 16 bits  sequence within the millisecond
+ * 16 bits  node id, {@code conversion.transaction-id.node-id}
+ * </pre>
+ * Timestamp and sequence share one {@link AtomicLong}, advanced with a single compare-and-set to the later of
+ * the clock and the last value plus one. Ids of one node are therefore strictly increasing without locking,
+ * also when the clock steps back or more than 65,536 ids are taken in one millisecond, in which case the
+ * timestamp runs briefly ahead of the clock. Ids of different nodes differ in the node id.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "conversion.transaction-id.generator", havingValue = "monotonic", matchIfMissing = true)
+public class MonotonicTransactionIdGenerator implements TransactionIdGenerator {
+
+    public static final int LENGTH = 16;
+
+    static final int SEQUENCE_BITS = 16;
+    static final int MAX_NODE_ID = (1 << 16) - 1;
+
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+    private final AtomicLong lastTick = new AtomicLong();
+    private final int nodeId;
+
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * @param nodeId between 0 and 65535, unique among the instances sharing a history; a negative value picks a
+     *               random node id
+     */
+    public MonotonicTransactionIdGenerator(@Value("${conversion.transaction-id.node-id:-1}") int nodeId) {
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Transaction id node id must not exceed " + MAX_NODE_ID);
+        }
+        if (nodeId < 0) {
+            nodeId = ThreadLocalRandom.current().nextInt(MAX_NODE_ID + 1);
+            log.info("No conversion.transaction-id.node-id configured, using random node id {}", nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /** The issue time is the id's own timestamp, which runs ahead of the clock while it does. */
+    @Override
+    public TransactionId next() {
+        long tick = nextTick();
+        return new TransactionId(encode(tick), Instant.ofEpochMilli(tick >>> SEQUENCE_BITS));
+    }
+
+    @Override
+    public String nextId() {
+        return encode(nextTick());
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    private long nextTick() {
+        return lastTick.accumulateAndGet(clock.millis() << SEQUENCE_BITS, (last, now) -> Math.max(now, last + 1));
+    }
+
+    private String encode(long tick) {
+        // 80-bit value tick:nodeId, taken five bits at a time from the least significant end
+        long high = tick >>> (Long.SIZE - 16);
+        long low = tick << 16 | nodeId;
+        byte[] id = new byte[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            id[i] = ALPHABET[(int) (low & 0x1F)];
+            low = low >>> 5 | high << (Long.SIZE - 5);
+            high >>>= 5;
+        }
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,10 @@
+package com.exchange.forex.id;
+
+import java.time.Instant;
+
+/**
+ * A transaction id and the time it was issued at, taken from the same clock reading, so a conversion's date and id
+ * never disagree about which came first.
+ */
+public record TransactionId(String value, Instant issuedAt) {
+}
@@ -0,0 +1,16 @@
+package com.exchange.forex.id;
+
+/**
+ * Source of conversion transaction ids, selected with {@code conversion.transaction-id.generator}. Ids must be
+ * unique and at most 36 US-ASCII characters, the width of the journal slot and of the {@code transaction_id}
+ * column.
+ */
+public interface TransactionIdGenerator {
+
+    /** Returns a new id with the time it was issued at, which is used as the conversion date. */
+    TransactionId next();
+
+    default String nextId() {
+        return next().value();
+    }
+}
@@ -0,0 +1,28 @@
+package com.exchange.forex.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.UUID;
+
+/**
+ * Random version 4 UUIDs from {@link java.security.SecureRandom}. They carry no order, so ids of successive conversions
+ * land at random places in the history indexes.
+ */
+@Component
+@ConditionalOnProperty(name = "conversion.transaction-id.generator", havingValue = "uuid")
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+
+    private Clock clock = Clock.systemUTC();
+
+    @Override
+    public TransactionId next() {
+        return new TransactionId(nextId(), clock.instant());
+    }
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
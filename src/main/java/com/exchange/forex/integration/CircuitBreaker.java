@@ -0,0 +1,114 @@
+package com.exchange.forex.integration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker. It opens once at least {@code minimumCalls} of the last {@code windowSize}
+ * calls were recorded and {@code failureRateThreshold} percent of them failed, rejects every call while
+ * open, and after {@code openDuration} lets a single trial call through to decide whether to close again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final Clock clock;
+
+    private final boolean[] failedCalls;
+    private int nextCall;
+    private int recordedCalls;
+    private int failureCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialCallInFlight;
+
+    public CircuitBreaker(int failureRateThreshold, int minimumCalls, int windowSize, Duration openDuration, Clock clock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openDurationMillis = openDuration.toMillis();
+        this.clock = clock;
+        this.failedCalls = new boolean[windowSize];
+    }
+
+    /**
+     * Returns whether a call may be made now. Every permitted call must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.millis() - openedAt < openDurationMillis) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialCallInFlight = true;
+                return true;
+            default:
+                if (trialCallInFlight) {
+                    return false;
+                }
+                trialCallInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (recordedCalls >= minimumCalls && failureCount * 100 >= failureRateThreshold * recordedCalls) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == failedCalls.length) {
+            if (failedCalls[nextCall]) {
+                failureCount--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        failedCalls[nextCall] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        nextCall = (nextCall + 1) % failedCalls.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.millis();
+        trialCallInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        trialCallInFlight = false;
+        nextCall = 0;
+        recordedCalls = 0;
+        failureCount = 0;
+    }
+}
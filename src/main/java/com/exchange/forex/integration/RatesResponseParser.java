@@ -0,0 +1,109 @@
+package com.exchange.forex.integration;
+
+import com.exchange.forex.model.CurrencyIndex;
+import com.exchange.forex.model.RateTable;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streams the {@code /latest/{base}} payload straight into a {@link RateTable}. Only {@code base} and
+ * {@code rates} are read, every other field and any rate keyed by something other than a currency code
+ * is skipped, and rates are read as primitive doubles whether
+ * the API sends them as integers or decimals.
+ */
+@Component
+public class RatesResponseParser {
+
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final JsonFactory jsonFactory;
+
+    public RatesResponseParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Returns the parsed table, or {@code null} if the payload has no {@code rates} object.
+     *
+     * @throws JsonParseException if the payload is not a JSON object or a rate is not a number
+     */
+    public RateTable parse(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+
+            RateTable.Builder builder = null;
+            String baseCurrency = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("rates".equals(field)) {
+                    builder = parseRates(parser, value);
+                } else if ("base".equals(field) && value == JsonToken.VALUE_STRING) {
+                    baseCurrency = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return builder == null ? null : builder.baseCurrency(baseCurrency).build();
+        }
+    }
+
+    private RateTable.Builder parseRates(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected rates to be an object");
+        }
+        RateTable.Builder builder = RateTable.builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String currency = parser.currentName();
+            if (!parser.nextToken().isNumeric()) {
+                throw new JsonParseException(parser, "Expected a numeric rate for " + currency);
+            }
+            if (CurrencyIndex.isCode(currency)) {
+                builder.rate(currency, readRate(parser));
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Reads plain decimals of up to 15 significant digits directly from the token characters, which is
+     * exact because both the digits and the power of ten are exactly representable as doubles. Anything
+     * else is left to Jackson.
+     */
+    private double readRate(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int end = offset + parser.getTextLength();
+
+        long digits = 0;
+        int digitCount = 0;
+        int fractionDigits = -1;
+        for (int i = offset; i < end; i++) {
+            char c = text[i];
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c >= '0' && c <= '9' && digitCount < MAX_EXACT_DIGITS) {
+                digits = digits * 10 + (c - '0');
+                digitCount++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else {
+                return parser.getDoubleValue();
+            }
+        }
+        return fractionDigits <= 0 ? digits : digits / POWERS_OF_TEN[fractionDigits];
+    }
+}
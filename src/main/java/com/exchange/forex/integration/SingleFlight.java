@@ -0,0 +1,82 @@
+package com.exchange.forex.integration;
+
+import com.exchange.forex.exception.ExternalServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Merges concurrent loads of the same key into one call. The first caller runs the loader, every
+ * caller arriving while it is in flight waits up to {@code maxWait} for the same result or failure.
+ */
+public class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws ExternalServiceException;
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder issuedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    public V execute(K key, Duration maxWait, Loader<V> loader) throws ExternalServiceException {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalescedCount.increment();
+            return await(key, existing, maxWait);
+        }
+
+        issuedCount.increment();
+        Throwable failure = null;
+        V value = null;
+        try {
+            value = loader.load();
+            return value;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            // Completed on every path, Errors included, so waiters never outlive the leader.
+            inFlight.remove(key, call);
+            if (failure == null) {
+                call.complete(value);
+            } else {
+                call.completeExceptionally(failure);
+            }
+        }
+    }
+
+    public long getIssuedCount() {
+        return issuedCount.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    private V await(K key, CompletableFuture<V> call, Duration maxWait) throws ExternalServiceException {
+        try {
+            return call.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ExternalServiceException("Timed out waiting for in-flight request for " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceException("Interrupted while waiting for in-flight request for " + key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExternalServiceException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ExternalServiceException(e.getCause().getMessage());
+        }
+    }
+}
@@ -1,48 +1,176 @@
 package com.exchange.forex.integration.impl;
 
+import com.exchange.forex.exception.CurrencyNotFoundException;
 import com.exchange.forex.exception.ExternalServiceException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.exchange.forex.integration.CircuitBreaker;
+import com.exchange.forex.integration.RatesResponseParser;
+import com.exchange.forex.integration.SingleFlight;
+import com.exchange.forex.model.CurrencyIndex;
+import com.exchange.forex.model.RateTable;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Currency;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class ExchangeRateProviderService {
 
+    /** The codes the request timers are tagged with, so the {@code base} tag stays bounded whatever is requested. */
+    private static final Set<String> ISO_CODES = Currency.getAvailableCurrencies().stream()
+        .map(Currency::getCurrencyCode)
+        .collect(Collectors.toUnmodifiableSet());
+
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final RatesResponseParser ratesResponseParser;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RequestTimers> requestTimers = new ConcurrentHashMap<>();
+    private final Counter requestsRejected;
     @Value("${exchange-rate.api.url}")
     private String apiUrl;
     @Value("${exchange-rate.api.key}")
     private String apiKey;
+    @Value("${exchange-rate.api.coalesced-wait-ms:10000}")
+    private long coalescedWaitMs = 10_000;
+
+    private final SingleFlight<String, RateTable> singleFlight = new SingleFlight<>();
+
+    /**
+     * Registers the rejection counter up front; the request timers of a base currency are registered together on
+     * its first request, so later requests only record to them.
+     */
+    public ExchangeRateProviderService(RestTemplate restTemplate, RatesResponseParser ratesResponseParser,
+                                       CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.ratesResponseParser = ratesResponseParser;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.requestsRejected = Counter.builder("forex.provider.rejected")
+            .description("Rate provider requests refused by the open circuit breaker")
+            .register(meterRegistry);
+    }
 
     public double getExchangeRate(String sourceCurrency, String targetCurrency) throws ExternalServiceException {
-        String url = String.format("%s/latest/%s?apikey=%s", apiUrl, sourceCurrency, apiKey);
+        double rate = getRates(sourceCurrency).get(targetCurrency);
+        if (Double.isNaN(rate)) {
+            throw new ExternalServiceException("Exchange rate not available for the specified currency pair");
+        }
+        return rate;
+    }
 
-        Map<String, Object> response;
-        try {
-            response = restTemplate.getForObject(url, Map.class);
-        } catch (Exception e) {
-            throw new ExternalServiceException("Error fetching exchange rate from Exchange Rate API: " + e.getMessage());
+    /**
+     * Fetches the whole rate table of {@code baseCurrency}. Concurrent calls for the same base currency
+     * share a single request to the external API. Codes that are not three upper-case letters are rejected
+     * without a request.
+     *
+     * @throws CurrencyNotFoundException if the code is invalid or the API does not know it
+     */
+    public RateTable getRates(String baseCurrency) throws ExternalServiceException {
+        if (!CurrencyIndex.isCode(baseCurrency)) {
+            throw new CurrencyNotFoundException("Invalid currency code: " + baseCurrency);
         }
+        return singleFlight.execute(baseCurrency, Duration.ofMillis(coalescedWaitMs), () -> fetchRates(baseCurrency));
+    }
+
+    public long getIssuedRequestCount() {
+        return singleFlight.getIssuedCount();
+    }
 
+    public long getCoalescedRequestCount() {
+        return singleFlight.getCoalescedCount();
+    }
+
+    private RateTable fetchRates(String baseCurrency) throws ExternalServiceException {
+        if (!circuitBreaker.tryAcquire()) {
+            requestsRejected.increment();
+            throw new ExternalServiceException("Exchange Rate API is unavailable: circuit breaker is open");
+        }
+        boolean succeeded = false;
+        // Everything but a rejection of the requested currency counts against the circuit.
+        boolean upstreamFailed = true;
+        RequestTimers timers = requestTimers.computeIfAbsent(baseTag(baseCurrency), this::registerRequestTimers);
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            if (response == null || !response.containsKey("rates")) {
-                throw new ExternalServiceException("Failed to fetch exchange rate from external API");
+            RateTable rates = requestRates(baseCurrency);
+            succeeded = true;
+            upstreamFailed = false;
+            return rates;
+        } catch (HttpClientErrorException e) {
+            HttpStatusCode status = e.getStatusCode();
+            if (status.isSameCodeAs(HttpStatus.NOT_FOUND) || status.isSameCodeAs(HttpStatus.BAD_REQUEST)
+                || status.isSameCodeAs(HttpStatus.UNPROCESSABLE_ENTITY)) {
+                // The API answered: the request was wrong, not the API unavailable.
+                upstreamFailed = false;
+                throw new CurrencyNotFoundException("Exchange rates are not available for currency " + baseCurrency);
             }
+            // Rate limiting (429) and rejected credentials (401, 403) fail every request until they clear.
+            throw new ExternalServiceException("Exchange Rate API rejected the request: " + status);
+        } catch (RestClientException e) {
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw new ExternalServiceException("Error parsing API response: Invalid data format");
+            }
+            throw new ExternalServiceException("Error fetching exchange rate from Exchange Rate API: " + e.getMessage());
+        } finally {
+            sample.stop(succeeded ? timers.succeeded() : timers.failed());
+            if (upstreamFailed) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        }
+    }
 
-            Map<String, Double> rates = (Map<String, Double>) response.get("rates");
-            Double rate = rates.get(targetCurrency);
+    /** The {@code base} tag of a request: the code itself for ISO 4217 currencies, {@code other} for the rest. */
+    private static String baseTag(String baseCurrency) {
+        return ISO_CODES.contains(baseCurrency) ? baseCurrency : "other";
+    }
 
-            if (rate == null) {
-                throw new ExternalServiceException("Exchange rate not available for the specified currency pair");
-            }
-            return rate;
-        } catch (Exception e) {
-            throw new ExternalServiceException("Error parsing API response: Invalid data format");
+    private RequestTimers registerRequestTimers(String base) {
+        return new RequestTimers(requestTimer(base, "success"), requestTimer(base, "failure"));
+    }
+
+    private Timer requestTimer(String base, String outcome) {
+        return Timer.builder("forex.provider.requests")
+            .description("Requests to the external rate provider")
+            .tag("base", base)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private RateTable requestRates(String baseCurrency) throws ExternalServiceException {
+        URI uri = UriComponentsBuilder.fromUriString(apiUrl)
+            .pathSegment("latest", baseCurrency)
+            .queryParam("apikey", apiKey)
+            .encode()
+            .build()
+            .toUri();
+
+        RateTable rates = restTemplate.execute(uri, HttpMethod.GET, null,
+            response -> ratesResponseParser.parse(response.getBody()));
+        if (rates == null) {
+            throw new ExternalServiceException("Failed to fetch exchange rate from external API");
         }
+        return rates;
+    }
+
+    private record RequestTimers(Timer succeeded, Timer failed) {
     }
 }
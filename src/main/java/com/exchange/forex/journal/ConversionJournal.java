@@ -0,0 +1,309 @@
+package com.exchange.forex.journal;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of conversions in fixed-width {@link JournalRecord}s, spread over segment files of
+ * {@code segmentSize} bytes named by their sequence number. The active segment is written through a
+ * {@link MappedByteBuffer}, so an append is a copy into the page cache; {@link #force()} makes the appended records
+ * durable and is meant to be called periodically so many appends share one sync.
+ * <p>
+ * On {@link #open} the segments are scanned to find the end of the journal: the first slot without a record, or
+ * with a torn record left by a crash, which later appends overwrite.
+ * <p>
+ * Each segment is summarised by the {@link SegmentSummary} of its conversion dates, kept for the active segment as
+ * records are appended and for older segments the first time they are replayed, so later replays can skip the
+ * segments a query cannot match. At the same points every transaction id is indexed to the segment and slot of its
+ * record, so {@link #find} reads one record instead of scanning; the index costs one map entry per journaled
+ * conversion and drops the entries of deleted segments.
+ */
+@Slf4j
+public class ConversionJournal implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final JournalRecord record = new JournalRecord();
+    private final Map<Long, SegmentSummary> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Long> locations = new ConcurrentHashMap<>();
+    private final LongAdder segmentsRead = new LongAdder();
+
+    private long segmentNumber;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int position;
+    private int unforcedFrom;
+
+    private ConversionJournal(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.recordsPerSegment = (int) Math.min(Integer.MAX_VALUE / JournalRecord.SIZE, segmentSize / JournalRecord.SIZE);
+        if (recordsPerSegment < 1) {
+            throw new IllegalArgumentException("Segment size must hold at least one record of " + JournalRecord.SIZE + " bytes");
+        }
+    }
+
+    /** Opens the journal in {@code directory}, creating it if needed, positioned after its last intact record. */
+    public static ConversionJournal open(Path directory, long segmentSize) throws IOException {
+        Files.createDirectories(directory);
+        ConversionJournal journal = new ConversionJournal(directory, segmentSize);
+        List<Path> segments = journal.segments();
+        if (segments.isEmpty()) {
+            journal.map(1);
+        } else {
+            journal.map(sequenceOf(segments.get(segments.size() - 1)));
+            journal.position = journal.endOf(journal.segment, journal.record);
+            journal.unforcedFrom = journal.position;
+            journal.summarize(journal.segmentNumber, journal.segment, journal.position, conversion -> { });
+        }
+        return journal;
+    }
+
+    /**
+     * Appends {@code conversion}, starting a new segment when the current one is full.
+     *
+     * @throws IllegalArgumentException if the conversion does not fit the record layout
+     */
+    public synchronized void append(ConversionResponse conversion) {
+        byte[] bytes = record.encode(conversion);
+        if (position + JournalRecord.SIZE > recordsPerSegment * JournalRecord.SIZE) {
+            roll();
+        }
+        segment.put(position, bytes, 0, JournalRecord.SIZE);
+        locations.put(conversion.getTransactionId(), locationOf(segmentNumber, position));
+        position += JournalRecord.SIZE;
+        SegmentSummary summary = summaries.get(segmentNumber);
+        summaries.put(segmentNumber, summary == null ? SegmentSummary.of(conversion) : summary.include(conversion));
+    }
+
+    /** Writes the records appended since the last call to disk. */
+    public synchronized void force() {
+        if (position > unforcedFrom) {
+            segment.force(unforcedFrom, position - unforcedFrom);
+            unforcedFrom = position;
+        }
+    }
+
+    /**
+     * Reads every record appended before the call, oldest first, and returns how many were read. Reading goes
+     * through separate read-only mappings, so appends continue meanwhile.
+     */
+    public long replay(Consumer<ConversionResponse> consumer) throws IOException {
+        return replay(summary -> true, consumer);
+    }
+
+    /**
+     * Like {@link #replay(Consumer)}, but skips the segments whose summary {@code segmentFilter} rejects. Segments
+     * not summarised yet are always read.
+     */
+    long replay(Predicate<SegmentSummary> segmentFilter, Consumer<ConversionResponse> consumer) throws IOException {
+        long lastSegment;
+        int lastPosition;
+        synchronized (this) {
+            lastSegment = segmentNumber;
+            lastPosition = position;
+        }
+
+        JournalRecord reader = new JournalRecord();
+        long count = 0;
+        for (Path path : segments()) {
+            long number = sequenceOf(path);
+            if (number > lastSegment) {
+                break;
+            }
+            SegmentSummary summary = summaries.get(number);
+            if (summary != null && !segmentFilter.test(summary)) {
+                continue;
+            }
+            try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                segmentsRead.increment();
+                if (number == lastSegment) {
+                    for (int offset = 0; offset < lastPosition; offset += JournalRecord.SIZE) {
+                        consumer.accept(JournalRecord.decode(buffer, offset));
+                    }
+                    count += lastPosition / JournalRecord.SIZE;
+                } else {
+                    count += summarize(number, buffer, endOf(buffer, reader), consumer);
+                }
+            } catch (NoSuchFileException e) {
+                // Deleted by deleteSegmentsEndedBefore since the directory was listed.
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the conversion with {@code transactionId}, or returns {@code null}. An indexed id is read from its one
+     * record; otherwise only the sealed segments not replayed yet are read, in order, until one of them holds it.
+     */
+    public ConversionResponse find(String transactionId) throws IOException {
+        Long location = locations.get(transactionId);
+        if (location != null) {
+            return read(location / recordsPerSegment, (int) (location % recordsPerSegment));
+        }
+        long activeSegment = getSegmentNumber();
+        JournalRecord reader = new JournalRecord();
+        for (Path path : segments()) {
+            long number = sequenceOf(path);
+            if (number >= activeSegment) {
+                break;
+            }
+            if (summaries.containsKey(number)) {
+                continue;
+            }
+            try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                segmentsRead.increment();
+                summarize(number, buffer, endOf(buffer, reader), conversion -> { });
+                location = locations.get(transactionId);
+                if (location != null) {
+                    return JournalRecord.decode(buffer, (int) (location % recordsPerSegment) * JournalRecord.SIZE);
+                }
+            } catch (NoSuchFileException e) {
+                // Deleted by deleteSegmentsEndedBefore since the directory was listed.
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the full segments whose newest conversion was made before {@code cutoff}. Segments not summarised
+     * yet, and the active segment, are kept.
+     *
+     * @return the number of segments deleted
+     */
+    public int deleteSegmentsEndedBefore(LocalDateTime cutoff) throws IOException {
+        long activeSegment = getSegmentNumber();
+        Set<Long> deleted = new HashSet<>();
+        for (Map.Entry<Long, SegmentSummary> entry : summaries.entrySet()) {
+            long number = entry.getKey();
+            if (number < activeSegment && entry.getValue().lastDate().isBefore(cutoff)) {
+                Files.deleteIfExists(segmentPath(number));
+                summaries.remove(number);
+                deleted.add(number);
+            }
+        }
+        if (!deleted.isEmpty()) {
+            locations.values().removeIf(location -> deleted.contains(location / recordsPerSegment));
+        }
+        return deleted.size();
+    }
+
+    /** Number of segment files opened by replays and lookups, for telling how many segments the summaries let queries skip. */
+    public long getSegmentsRead() {
+        return segmentsRead.sum();
+    }
+
+    public synchronized long getSegmentNumber() {
+        return segmentNumber;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private int endOf(MappedByteBuffer buffer, JournalRecord reader) {
+        int limit = Math.min(buffer.capacity(), recordsPerSegment * JournalRecord.SIZE);
+        int offset = 0;
+        while (offset + JournalRecord.SIZE <= limit && reader.isValid(buffer, offset)) {
+            offset += JournalRecord.SIZE;
+        }
+        if (offset + JournalRecord.SIZE <= limit && JournalRecord.isPresent(buffer, offset)) {
+            log.warn("Journal segment ends with a torn record at offset {}, it will be overwritten", offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Hands the first {@code end} bytes of records to {@code consumer} and records the segment's summary, indexing
+     * its ids the first time the segment is read.
+     */
+    private long summarize(long number, MappedByteBuffer buffer, int end, Consumer<ConversionResponse> consumer) {
+        boolean index = !summaries.containsKey(number);
+        SegmentSummary summary = null;
+        for (int offset = 0; offset < end; offset += JournalRecord.SIZE) {
+            ConversionResponse conversion = JournalRecord.decode(buffer, offset);
+            summary = summary == null ? SegmentSummary.of(conversion) : summary.include(conversion);
+            if (index) {
+                locations.put(conversion.getTransactionId(), locationOf(number, offset));
+            }
+            consumer.accept(conversion);
+        }
+        if (summary != null) {
+            summaries.put(number, summary);
+        }
+        return end / JournalRecord.SIZE;
+    }
+
+    /** Reads the record in {@code slot} of segment {@code number}, or returns {@code null} if it was deleted. */
+    private ConversionResponse read(long number, int slot) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(segmentPath(number), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, (long) slot * JournalRecord.SIZE, JournalRecord.SIZE);
+            segmentsRead.increment();
+            return JournalRecord.decode(buffer, 0);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private long locationOf(long number, int offset) {
+        return number * recordsPerSegment + offset / JournalRecord.SIZE;
+    }
+
+    private void roll() {
+        try {
+            segment.force();
+            channel.close();
+            map(segmentNumber + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start journal segment " + (segmentNumber + 1), e);
+        }
+    }
+
+    private void map(long number) throws IOException {
+        channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * JournalRecord.SIZE);
+        segmentNumber = number;
+        position = 0;
+        unforcedFrom = 0;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%012d%s", number, SEGMENT_SUFFIX));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,210 @@
+package com.exchange.forex.journal;
+
+import com.exchange.forex.config.HistoryProperties;
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.history.ConversionHistoryStore;
+import com.exchange.forex.history.HistoryCursor;
+import com.exchange.forex.history.HistoryPage;
+import com.exchange.forex.history.HistoryPersistence;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the conversion history in a {@link ConversionJournal}. Appends go straight into the mapped segment and a
+ * background thread forces them to disk every {@code sync-interval}, so a crash loses at most that interval of
+ * conversions. On startup the whole journal is replayed into the in-memory history, which then answers queries;
+ * the find methods here read the journal and only serve days the in-memory limits have evicted. A date scan only
+ * reads the segments whose {@link SegmentSummary} may match, an id lookup reads the one record the journal's id
+ * index points to, and segments that ended more than {@code retention} ago are deleted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "conversion.history.persistence.type", havingValue = "journal")
+public class JournalHistoryPersistence implements HistoryPersistence {
+
+    private static final Comparator<ConversionResponse> ORDER = Comparator
+        .comparing(ConversionResponse::getConversionDate)
+        .thenComparing(ConversionResponse::getTransactionId);
+
+    private final ConversionJournal journal;
+    private final Duration retention;
+    private final ScheduledExecutorService syncer;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long replayedCount;
+    private volatile double replayRecordsPerSecond;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public JournalHistoryPersistence(HistoryProperties properties) throws IOException {
+        HistoryProperties.Journal settings = properties.getPersistence().getJournal();
+        this.journal = ConversionJournal.open(settings.getDirectory(), settings.getSegmentSize().toBytes());
+        this.retention = settings.getRetention();
+        this.syncer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("journal-sync").daemon().factory());
+        long intervalMillis = Math.max(1, settings.getSyncInterval().toMillis());
+        syncer.scheduleWithFixedDelay(this::sync, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        syncer.shutdown();
+        journal.close();
+    }
+
+    @Override
+    public void append(ConversionResponse conversion) {
+        try {
+            journal.append(conversion);
+        } catch (RuntimeException e) {
+            dropped.increment();
+            log.warn("Could not journal conversion {}: {}", conversion.getTransactionId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void restore(ConversionHistoryStore store) {
+        long started = System.nanoTime();
+        long count = scan(summary -> true, store::restore);
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+
+        replayedCount = count;
+        replayRecordsPerSecond = count * 1e9 / elapsedNanos;
+        log.info("Replayed {} journaled conversions in {} ms ({} records/s)",
+            count, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(replayRecordsPerSecond));
+    }
+
+    /** Reads the one record the journal's id index points to, whatever the shape of the id. */
+    @Override
+    public ConversionResponse findById(String transactionId) {
+        try {
+            return journal.find(transactionId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the conversion journal", e);
+        }
+    }
+
+    @Override
+    public HistoryPage findByDate(LocalDate date, long offset, int limit) {
+        List<ConversionResponse> day = collectDay(date);
+        int from = (int) Math.min(offset, day.size());
+        int to = (int) Math.min(offset + limit, day.size());
+        return page(day, from, to);
+    }
+
+    @Override
+    public HistoryPage findAfter(HistoryCursor cursor, int limit) {
+        LocalDate date = cursor.conversionDate().toLocalDate();
+        List<ConversionResponse> day = collectDay(date);
+        ConversionResponse probe = new ConversionResponse();
+        probe.setConversionDate(cursor.conversionDate());
+        probe.setTransactionId(cursor.transactionId());
+        int from = 0;
+        while (from < day.size() && ORDER.compare(day.get(from), probe) <= 0) {
+            from++;
+        }
+        return page(day, from, Math.min(from + limit, day.size()));
+    }
+
+    /** Conversions are handed over in journal order, which is the order they were made in. */
+    @Override
+    public long forEachOnDate(LocalDate date, Consumer<ConversionResponse> consumer) {
+        long[] count = new long[1];
+        scan(onDay(date), conversion -> {
+            if (conversion.getConversionDate().toLocalDate().equals(date)) {
+                consumer.accept(conversion);
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /** Deletes the journal segments whose newest conversion is older than {@code retention}, if one is set. */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void deleteExpiredSegments() {
+        if (retention == null) {
+            return;
+        }
+        try {
+            int deleted = journal.deleteSegmentsEndedBefore(LocalDateTime.now(clock).minus(retention));
+            if (deleted > 0) {
+                log.info("Deleted {} journal segments older than {}", deleted, retention);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete expired journal segments: {}", e.getMessage());
+        }
+    }
+
+    public long getReplayedCount() {
+        return replayedCount;
+    }
+
+    public double getReplayRecordsPerSecond() {
+        return replayRecordsPerSecond;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getSegmentsRead() {
+        return journal.getSegmentsRead();
+    }
+
+    private void sync() {
+        try {
+            journal.force();
+        } catch (RuntimeException e) {
+            log.warn("Could not force the conversion journal to disk: {}", e.getMessage());
+        }
+    }
+
+    private List<ConversionResponse> collectDay(LocalDate date) {
+        List<ConversionResponse> matches = new ArrayList<>();
+        scan(onDay(date), conversion -> {
+            if (conversion.getConversionDate().toLocalDate().equals(date)) {
+                matches.add(conversion);
+            }
+        });
+        matches.sort(ORDER);
+        return matches;
+    }
+
+    private static Predicate<SegmentSummary> onDay(LocalDate date) {
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+        return summary -> summary.overlaps(from, to);
+    }
+
+    private long scan(Predicate<SegmentSummary> segmentFilter, Consumer<ConversionResponse> consumer) {
+        try {
+            return journal.replay(segmentFilter, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the conversion journal", e);
+        }
+    }
+
+    private static HistoryPage page(List<ConversionResponse> day, int from, int to) {
+        List<ConversionResponse> content = day.subList(from, to);
+        HistoryCursor nextCursor = to < day.size() && !content.isEmpty() ? HistoryCursor.after(content.get(content.size() - 1)) : null;
+        return new HistoryPage(List.copyOf(content), day.size(), nextCursor);
+    }
+}
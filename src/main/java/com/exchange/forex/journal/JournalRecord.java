@@ -0,0 +1,130 @@
+package com.exchange.forex.journal;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed-width binary layout of a journaled conversion, {@value #SIZE} bytes, big-endian:
+ * <pre>
+ *  0  int     magic
+ *  4  long    conversionDate, epoch seconds of the local date-time read as UTC
+ * 12  int     conversionDate nanos
+ * 16  byte    transactionId length
+ * 17  byte[36] transactionId, US-ASCII, zero padded
+ * 53  byte[3] sourceCurrency
+ * 56  byte[3] targetCurrency
+ * 59  long    sourceAmount unscaled value
+ * 67  byte    sourceAmount scale
+ * 68  long    convertedAmount unscaled value
+ * 76  byte    convertedAmount scale
+ * 77  double  exchangeRate
+ * 85  byte    staleRate
+ * 86  byte[6] padding
+ * 92  int     CRC32C of bytes 0..91
+ * </pre>
+ * An unwritten slot reads as zeros, so a missing magic marks the end of the journal, and a torn record left by
+ * a crash fails its checksum.
+ */
+final class JournalRecord {
+
+    static final int SIZE = 96;
+
+    private static final int MAGIC = 0x46584A31;
+    private static final int MAX_ID_LENGTH = 36;
+    private static final int CHECKSUM_OFFSET = SIZE - Integer.BYTES;
+
+    private final ByteBuffer scratch = ByteBuffer.allocate(SIZE);
+    private final CRC32C crc = new CRC32C();
+
+    /**
+     * Encodes {@code conversion} into the reusable scratch buffer and returns its backing array.
+     *
+     * @throws IllegalArgumentException if a value does not fit the fixed layout
+     */
+    byte[] encode(ConversionResponse conversion) {
+        String transactionId = conversion.getTransactionId();
+        if (transactionId.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Transaction id longer than " + MAX_ID_LENGTH + " characters");
+        }
+        LocalDateTime conversionDate = conversion.getConversionDate();
+
+        scratch.clear();
+        scratch.putInt(MAGIC);
+        scratch.putLong(conversionDate.toEpochSecond(ZoneOffset.UTC));
+        scratch.putInt(conversionDate.getNano());
+        scratch.put((byte) transactionId.length());
+        for (int i = 0; i < MAX_ID_LENGTH; i++) {
+            scratch.put(i < transactionId.length() ? (byte) transactionId.charAt(i) : 0);
+        }
+        putCode(conversion.getSourceCurrency());
+        putCode(conversion.getTargetCurrency());
+        putAmount(conversion.getSourceAmount());
+        putAmount(conversion.getConvertedAmount());
+        scratch.putDouble(conversion.getExchangeRate());
+        scratch.put((byte) (conversion.isStaleRate() ? 1 : 0));
+        while (scratch.position() < CHECKSUM_OFFSET) {
+            scratch.put((byte) 0);
+        }
+
+        crc.reset();
+        crc.update(scratch.array(), 0, CHECKSUM_OFFSET);
+        scratch.putInt((int) crc.getValue());
+        return scratch.array();
+    }
+
+    /** Returns whether a record starts at {@code offset}, i.e. the slot has been written to. */
+    static boolean isPresent(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset) == MAGIC;
+    }
+
+    /** Returns whether the record at {@code offset} is complete and intact. */
+    boolean isValid(ByteBuffer buffer, int offset) {
+        if (!isPresent(buffer, offset)) {
+            return false;
+        }
+        buffer.get(offset, scratch.array(), 0, SIZE);
+        crc.reset();
+        crc.update(scratch.array(), 0, CHECKSUM_OFFSET);
+        return (int) crc.getValue() == buffer.getInt(offset + CHECKSUM_OFFSET);
+    }
+
+    static ConversionResponse decode(ByteBuffer buffer, int offset) {
+        ConversionResponse conversion = new ConversionResponse();
+        conversion.setConversionDate(LocalDateTime.ofEpochSecond(
+            buffer.getLong(offset + 4), buffer.getInt(offset + 12), ZoneOffset.UTC));
+        conversion.setTransactionId(ascii(buffer, offset + 17, buffer.get(offset + 16)));
+        conversion.setSourceCurrency(ascii(buffer, offset + 53, 3));
+        conversion.setTargetCurrency(ascii(buffer, offset + 56, 3));
+        conversion.setSourceAmount(BigDecimal.valueOf(buffer.getLong(offset + 59), buffer.get(offset + 67)));
+        conversion.setConvertedAmount(BigDecimal.valueOf(buffer.getLong(offset + 68), buffer.get(offset + 76)));
+        conversion.setExchangeRate(buffer.getDouble(offset + 77));
+        conversion.setStaleRate(buffer.get(offset + 85) == 1);
+        return conversion;
+    }
+
+    private void putCode(String currency) {
+        for (int i = 0; i < 3; i++) {
+            scratch.put((byte) currency.charAt(i));
+        }
+    }
+
+    private void putAmount(BigDecimal amount) {
+        if (amount.scale() > Byte.MAX_VALUE || amount.scale() < Byte.MIN_VALUE || amount.unscaledValue().bitLength() > 63) {
+            throw new IllegalArgumentException("Amount " + amount + " does not fit the journal record");
+        }
+        scratch.putLong(amount.unscaledValue().longValue());
+        scratch.put((byte) amount.scale());
+    }
+
+    private static String ascii(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,28 @@
+package com.exchange.forex.journal;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+
+import java.time.LocalDateTime;
+
+/**
+ * Range of conversion dates held by one journal segment, kept in memory so a date query can skip the segments it
+ * cannot match without reading them.
+ */
+record SegmentSummary(LocalDateTime firstDate, LocalDateTime lastDate) {
+
+    static SegmentSummary of(ConversionResponse conversion) {
+        return new SegmentSummary(conversion.getConversionDate(), conversion.getConversionDate());
+    }
+
+    SegmentSummary include(ConversionResponse conversion) {
+        LocalDateTime date = conversion.getConversionDate();
+        return new SegmentSummary(
+            date.isBefore(firstDate) ? date : firstDate,
+            date.isAfter(lastDate) ? date : lastDate);
+    }
+
+    /** Whether the segment may hold a conversion made from {@code from} inclusive to {@code to} exclusive. */
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return firstDate.isBefore(to) && !lastDate.isBefore(from);
+    }
+}
@@ -0,0 +1,77 @@
+package com.exchange.forex.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters updated on the conversion paths. They are registered once, so recording only touches the meters
+ * themselves and never looks them up in the registry.
+ */
+@Component
+public class ConversionMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer conversionsSucceeded;
+    private final Timer conversionsFailed;
+    private final Counter staleRateConversions;
+    private final Counter bulkRowsSucceeded;
+    private final Counter bulkRowsFailed;
+    private final DistributionSummary bulkJobThroughput;
+
+    public ConversionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.conversionsSucceeded = conversionTimer("success");
+        this.conversionsFailed = conversionTimer("failure");
+        this.staleRateConversions = Counter.builder("forex.conversions.stale.rate")
+            .description("Conversions priced at a rate served past its TTL")
+            .register(meterRegistry);
+        this.bulkRowsSucceeded = bulkRowCounter("success");
+        this.bulkRowsFailed = bulkRowCounter("failure");
+        this.bulkJobThroughput = DistributionSummary.builder("forex.bulk.jobs.throughput")
+            .description("Rows per second of finished bulk jobs")
+            .baseUnit("rows/s")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    public Timer.Sample startConversion() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void conversionSucceeded(Timer.Sample sample, boolean staleRate) {
+        sample.stop(conversionsSucceeded);
+        if (staleRate) {
+            staleRateConversions.increment();
+        }
+    }
+
+    public void conversionFailed(Timer.Sample sample) {
+        sample.stop(conversionsFailed);
+    }
+
+    public void bulkJobRowProcessed(boolean failed) {
+        (failed ? bulkRowsFailed : bulkRowsSucceeded).increment();
+    }
+
+    public void bulkJobFinished(double rowsPerSecond) {
+        bulkJobThroughput.record(rowsPerSecond);
+    }
+
+    private Timer conversionTimer(String outcome) {
+        return Timer.builder("forex.conversions")
+            .description("Single currency conversions")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private Counter bulkRowCounter(String outcome) {
+        return Counter.builder("forex.bulk.jobs.rows")
+            .description("Rows processed by bulk jobs")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,120 @@
+package com.exchange.forex.metrics;
+
+import com.exchange.forex.cache.RateSnapshotCache;
+import com.exchange.forex.history.ConversionHistoryStore;
+import com.exchange.forex.history.HistoryStats;
+import com.exchange.forex.integration.CircuitBreaker;
+import com.exchange.forex.integration.impl.ExchangeRateProviderService;
+import com.exchange.forex.journal.JournalHistoryPersistence;
+import com.exchange.forex.model.BulkJobStatus;
+import com.exchange.forex.persistence.JpaHistoryPersistence;
+import com.exchange.forex.service.BulkConversionJobService;
+import com.exchange.forex.timeseries.RateHistoryStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the counters and sizes the components already keep as gauges and function counters, read when the
+ * registry is scraped rather than updated on every operation.
+ */
+@Component
+@RequiredArgsConstructor
+public class ForexMeterBinder implements MeterBinder {
+
+    private final ConversionHistoryStore historyStore;
+    private final RateSnapshotCache rateSnapshotCache;
+    private final ExchangeRateProviderService exchangeRateProviderService;
+    private final CircuitBreaker circuitBreaker;
+    private final BulkConversionJobService bulkConversionJobService;
+    private final ThreadPoolExecutor bulkJobExecutor;
+    private final RateHistoryStore rateHistoryStore;
+    private final ObjectProvider<JpaHistoryPersistence> jpaHistoryPersistence;
+    private final ObjectProvider<JournalHistoryPersistence> journalHistoryPersistence;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindHistory(registry);
+        bindRates(registry);
+        bindBulkJobs(registry);
+
+        jpaHistoryPersistence.ifAvailable(persistence -> {
+            FunctionCounter.builder("forex.history.persistence.written", persistence, JpaHistoryPersistence::getWrittenCount)
+                .description("Conversions written to the database").register(registry);
+            FunctionCounter.builder("forex.history.persistence.dropped", persistence, JpaHistoryPersistence::getDroppedCount)
+                .description("Conversions not persisted because the write queue was full or a batch failed").register(registry);
+        });
+        journalHistoryPersistence.ifAvailable(persistence -> {
+            FunctionCounter.builder("forex.history.persistence.dropped", persistence, JournalHistoryPersistence::getDroppedCount)
+                .description("Conversions that could not be journaled").register(registry);
+            Gauge.builder("forex.history.journal.replayed", persistence, JournalHistoryPersistence::getReplayedCount)
+                .description("Conversions replayed from the journal on startup").register(registry);
+            Gauge.builder("forex.history.journal.replay.rate", persistence, JournalHistoryPersistence::getReplayRecordsPerSecond)
+                .description("Journal replay rate on startup").baseUnit("records/s").register(registry);
+            FunctionCounter.builder("forex.history.journal.segments.read", persistence, JournalHistoryPersistence::getSegmentsRead)
+                .description("Journal segments read by replays and history queries").register(registry);
+        });
+    }
+
+    private void bindHistory(MeterRegistry registry) {
+        historyGauge(registry, "forex.history.entries", "Conversions held in the in-memory history", HistoryStats::entries);
+        historyGauge(registry, "forex.history.bytes", "Estimated heap held by the in-memory history", HistoryStats::estimatedBytes);
+        historyEvictions(registry, "age", HistoryStats::evictedByAge);
+        historyEvictions(registry, "entries", HistoryStats::evictedByEntries);
+        historyEvictions(registry, "bytes", HistoryStats::evictedByBytes);
+    }
+
+    private void bindRates(MeterRegistry registry) {
+        Gauge.builder("forex.rates.cache.size", rateSnapshotCache, RateSnapshotCache::size)
+            .description("Base currencies with a cached rate table").register(registry);
+        FunctionCounter.builder("forex.rates.cache.lookups", rateSnapshotCache, RateSnapshotCache::getHitCount)
+            .description("Rate lookups").tag("result", "hit").register(registry);
+        FunctionCounter.builder("forex.rates.cache.lookups", rateSnapshotCache, RateSnapshotCache::getMissCount)
+            .description("Rate lookups").tag("result", "miss").register(registry);
+        FunctionCounter.builder("forex.rates.cache.stale.served", rateSnapshotCache, RateSnapshotCache::getStaleServedCount)
+            .description("Expired rate tables served because they could not be reloaded").register(registry);
+        FunctionCounter.builder("forex.rates.matrix.builds", rateSnapshotCache, RateSnapshotCache::getMatrixBuildCount)
+            .description("Rebuilds of the rate matrix").register(registry);
+        FunctionCounter.builder("forex.provider.fetches", exchangeRateProviderService, ExchangeRateProviderService::getIssuedRequestCount)
+            .description("Rate table requests issued to the rate provider").register(registry);
+        FunctionCounter.builder("forex.provider.coalesced", exchangeRateProviderService, ExchangeRateProviderService::getCoalescedRequestCount)
+            .description("Rate table requests that joined one already in flight").register(registry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("forex.provider.circuit.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                .description("1 for the current state of the rate provider circuit breaker")
+                .tag("state", state.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+        }
+        Gauge.builder("forex.rates.history.points", rateHistoryStore, store -> store.getStats().points())
+            .description("Rates held in the rate history").register(registry);
+    }
+
+    private void bindBulkJobs(MeterRegistry registry) {
+        for (BulkJobStatus status : BulkJobStatus.values()) {
+            Gauge.builder("forex.bulk.jobs", bulkConversionJobService, service -> service.count(status))
+                .description("Bulk jobs kept, by status")
+                .tag("status", status.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+        }
+        Gauge.builder("forex.bulk.jobs.queue.size", bulkJobExecutor, executor -> executor.getQueue().size())
+            .description("Bulk jobs waiting for a worker").register(registry);
+    }
+
+    private void historyGauge(MeterRegistry registry, String name, String description, ToDoubleFunction<HistoryStats> value) {
+        Gauge.builder(name, historyStore, store -> value.applyAsDouble(store.getStats()))
+            .description(description).register(registry);
+    }
+
+    private void historyEvictions(MeterRegistry registry, String cause, ToDoubleFunction<HistoryStats> value) {
+        FunctionCounter.builder("forex.history.evictions", historyStore, store -> value.applyAsDouble(store.getStats()))
+            .description("Conversions evicted from the in-memory history").tag("cause", cause).register(registry);
+    }
+}
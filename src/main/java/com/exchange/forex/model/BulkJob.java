@@ -0,0 +1,101 @@
+package com.exchange.forex.model;
+
+import com.exchange.forex.stream.StreamFormat;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of an asynchronous bulk conversion. The counters are written only by the worker running the
+ * job and are read by status requests while it runs.
+ * <p>
+ * Downloads of the result file are counted, so the job is only evicted, and its files deleted, while none is open.
+ */
+@Getter
+public class BulkJob {
+
+    private static final int EVICTED = -1;
+
+    private final String id;
+    private final StreamFormat format;
+    private final Path inputFile;
+    private final Path resultFile;
+    private final Instant submittedAt;
+
+    private volatile BulkJobStatus status = BulkJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile int processedCount;
+    private volatile int failedCount;
+    private volatile String errorMessage;
+
+    /** Open downloads of the result file, or {@link #EVICTED} once the job has been evicted. */
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    public BulkJob(String id, StreamFormat format, Path inputFile, Path resultFile, Instant submittedAt) {
+        this.id = id;
+        this.format = format;
+        this.inputFile = inputFile;
+        this.resultFile = resultFile;
+        this.submittedAt = submittedAt;
+    }
+
+    public void start(Instant now) {
+        startedAt = now;
+        status = BulkJobStatus.RUNNING;
+    }
+
+    public void rowProcessed(boolean failed) {
+        if (failed) {
+            failedCount++;
+        }
+        processedCount++;
+    }
+
+    public void complete(Instant now) {
+        finishedAt = now;
+        status = BulkJobStatus.COMPLETED;
+    }
+
+    public void fail(Instant now, String message) {
+        errorMessage = message;
+        finishedAt = now;
+        status = BulkJobStatus.FAILED;
+    }
+
+    /** Registers an open download of the result file; fails once the job has been evicted. */
+    public boolean openDownload() {
+        int current;
+        do {
+            current = downloads.get();
+            if (current == EVICTED) {
+                return false;
+            }
+        } while (!downloads.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void closeDownload() {
+        downloads.decrementAndGet();
+    }
+
+    /** Marks the job evicted if no download is open, after which no download can be opened. */
+    public boolean evict() {
+        return downloads.compareAndSet(0, EVICTED);
+    }
+
+    /** Rows per second from the start of the job until it finished, or until {@code now} while it runs. */
+    public double getRowsPerSecond(Instant now) {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : now;
+        long elapsedMillis = Math.max(1, end.toEpochMilli() - start.toEpochMilli());
+        return processedCount * 1000.0 / elapsedMillis;
+    }
+}
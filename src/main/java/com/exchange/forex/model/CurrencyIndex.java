@@ -0,0 +1,103 @@
+package com.exchange.forex.model;
+
+import java.util.Arrays;
+
+/**
+ * Assigns a dense, stable index to every ISO 4217 code seen in an upstream rate table so that rates can
+ * be kept in primitive arrays instead of maps keyed by {@link String}.
+ * <p>
+ * A code of three upper-case letters is first packed into a slot of a fixed {@code 26^3} table; looking a
+ * code up only reads that table and never allocates. Only {@link #register(String)} assigns new indexes,
+ * which keeps the index bounded by the codes the external API actually publishes.
+ */
+public final class CurrencyIndex {
+
+    private static final int SLOTS = 26 * 26 * 26;
+
+    /**
+     * Both directions of the mapping, replaced as a whole under the {@link #assign} lock and published through
+     * one volatile reference, so a reader that sees an index also sees its code.
+     */
+    private static volatile Table table = new Table(new int[SLOTS], new String[0]);
+
+    private CurrencyIndex() {
+    }
+
+    /**
+     * Returns the index of {@code code}, or -1 when it is not a registered currency code.
+     */
+    public static int indexOf(String code) {
+        int slot = slotOf(code);
+        return slot < 0 ? -1 : table.slotToIndex[slot] - 1;
+    }
+
+    /**
+     * Returns the index of {@code code}, assigning the next free index if it has none yet.
+     *
+     * @throws IllegalArgumentException if {@code code} is not three upper-case letters
+     */
+    public static int register(String code) {
+        int slot = slotOf(code);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Invalid currency code: " + code);
+        }
+        int index = table.slotToIndex[slot] - 1;
+        return index >= 0 ? index : assign(slot, code);
+    }
+
+    /**
+     * Returns whether {@code code} is three upper-case letters.
+     */
+    public static boolean isCode(String code) {
+        return slotOf(code) >= 0;
+    }
+
+    public static String codeOf(int index) {
+        return table.indexToCode[index];
+    }
+
+    /**
+     * Returns the number of registered codes; every index is below this value.
+     */
+    public static int size() {
+        return table.indexToCode.length;
+    }
+
+    /**
+     * Copies the table to add a code. Codes are only registered while parsing the first tables, a few hundred
+     * at most, so copying the slot array each time is cheaper than making every lookup synchronize.
+     */
+    private static synchronized int assign(int slot, String code) {
+        Table current = table;
+        int existing = current.slotToIndex[slot] - 1;
+        if (existing >= 0) {
+            return existing;
+        }
+        String[] codes = Arrays.copyOf(current.indexToCode, current.indexToCode.length + 1);
+        int index = codes.length - 1;
+        codes[index] = code;
+        int[] slots = current.slotToIndex.clone();
+        slots[slot] = index + 1;
+        table = new Table(slots, codes);
+        return index;
+    }
+
+    private static int slotOf(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            slot = slot * 26 + letter;
+        }
+        return slot;
+    }
+
+    /** Index + 1 of the code packed into each slot, 0 when the code has no index yet, and the code of each index. */
+    private record Table(int[] slotToIndex, String[] indexToCode) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.exchange.forex.model;
+
+/**
+ * An exchange rate and whether it comes from a snapshot kept past its TTL because the external API
+ * could not be reached.
+ */
+public record RateQuote(double rate, boolean stale) {
+}
@@ -0,0 +1,107 @@
+package com.exchange.forex.model;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable rates of one base currency, stored as a primitive array indexed by {@link CurrencyIndex}.
+ * Missing rates are {@link Double#NaN}.
+ */
+public final class RateTable {
+
+    private final String baseCurrency;
+    private final double[] rates;
+    private final int size;
+
+    private RateTable(String baseCurrency, double[] rates, int size) {
+        this.baseCurrency = baseCurrency;
+        this.rates = rates;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static RateTable of(String baseCurrency, Map<String, Double> rates) {
+        Builder builder = builder().baseCurrency(baseCurrency);
+        rates.forEach(builder::rate);
+        return builder.build();
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * Returns the rate of {@code currency} against the base currency, or {@link Double#NaN} if there is none.
+     */
+    public double get(String currency) {
+        return get(CurrencyIndex.indexOf(currency));
+    }
+
+    public double get(int currencyIndex) {
+        return currencyIndex >= 0 && currencyIndex < rates.length ? rates[currencyIndex] : Double.NaN;
+    }
+
+    /**
+     * Returns the number of currencies with a rate.
+     */
+    public int size() {
+        return size;
+    }
+
+    public void forEach(RateConsumer consumer) {
+        for (int i = 0; i < rates.length; i++) {
+            if (!Double.isNaN(rates[i])) {
+                consumer.accept(i, rates[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface RateConsumer {
+        void accept(int currencyIndex, double rate);
+    }
+
+    public static final class Builder {
+        private String baseCurrency;
+        private double[] rates = newRates(Math.max(CurrencyIndex.size(), 16));
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder baseCurrency(String baseCurrency) {
+            this.baseCurrency = baseCurrency;
+            return this;
+        }
+
+        public Builder rate(String currency, double rate) {
+            return rate(CurrencyIndex.register(currency), rate);
+        }
+
+        public Builder rate(int currencyIndex, double rate) {
+            if (currencyIndex >= rates.length) {
+                int length = rates.length;
+                rates = Arrays.copyOf(rates, Math.max(currencyIndex + 1, length * 2));
+                Arrays.fill(rates, length, rates.length, Double.NaN);
+            }
+            if (Double.isNaN(rates[currencyIndex])) {
+                size++;
+            }
+            rates[currencyIndex] = rate;
+            return this;
+        }
+
+        public RateTable build() {
+            return new RateTable(baseCurrency, rates, size);
+        }
+
+        private static double[] newRates(int length) {
+            double[] rates = new double[length];
+            Arrays.fill(rates, Double.NaN);
+            return rates;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.exchange.forex.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Money and rate arithmetic on scaled longs. An amount is a count of units of 10<sup>-scale</sup>, usually
+ * the currency's {@link MinorUnits minor units}, and a rate is a count of units of
+ * 10<sup>-{@value #RATE_SCALE}</sup>. Multiplying the two is exact in 128 bits and rounded HALF_UP once, so the
+ * result matches {@code amount.multiply(rate).setScale(scale, HALF_UP)} without allocating.
+ * <p>
+ * {@link BigDecimal} is only used by {@link #convert} to take and return amounts at the API edge, and as the
+ * fallback for the values the fixed-point path cannot represent.
+ */
+public final class FixedPoint {
+
+    /** Decimal places kept of a rate; eight significant digits even for a rate as small as 0.0001. */
+    public static final int RATE_SCALE = 12;
+
+    /** Largest rate that fits the fixed-point representation. */
+    public static final double MAX_RATE = (double) Long.MAX_VALUE / 1e12;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    private static final int MAX_DIVISION_STEP = 9;
+    private static final long LOW_32_BITS = 0xFFFF_FFFFL;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Returns {@code rate} rounded to {@value #RATE_SCALE} decimal places, which also drops the binary noise a
+     * double carries past them, such as in 0.1 + 0.2.
+     *
+     * @throws ArithmeticException if {@code rate} is negative, not finite or larger than {@link #MAX_RATE}
+     */
+    public static long toRateUnits(double rate) {
+        if (!(rate >= 0 && rate < MAX_RATE)) {
+            throw new ArithmeticException("Rate out of fixed-point range: " + rate);
+        }
+        return Math.round(rate * 1e12);
+    }
+
+    /**
+     * Returns {@code amount} (at {@code amountScale}) times {@code rateUnits} (at {@value #RATE_SCALE}), rounded
+     * HALF_UP to {@code resultScale}.
+     *
+     * @throws ArithmeticException if an operand is negative, the scales are more than 18 decimal places apart or
+     *                             the result does not fit in a long
+     */
+    public static long multiply(long amount, int amountScale, long rateUnits, int resultScale) {
+        int shift = amountScale + RATE_SCALE - resultScale;
+        if (amount < 0 || rateUnits < 0 || shift < 0 || shift >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Operands out of fixed-point range");
+        }
+        long high = Math.unsignedMultiplyHigh(amount, rateUnits);
+        long low = amount * rateUnits;
+
+        // Divides the 128-bit product by 10^shift in steps below 2^32, 32 bits at a time, keeping the remainder
+        // of the whole division for the rounding.
+        long remainder = 0;
+        long divided = 1;
+        for (int remaining = shift; remaining > 0; ) {
+            int step = Math.min(remaining, MAX_DIVISION_STEP);
+            long divisor = POWERS_OF_TEN[step];
+
+            long current = high >>> 32;
+            long q3 = current / divisor;
+            current = (current % divisor) << 32 | (high & LOW_32_BITS);
+            long q2 = current / divisor;
+            current = (current % divisor) << 32 | (low >>> 32);
+            long q1 = current / divisor;
+            current = (current % divisor) << 32 | (low & LOW_32_BITS);
+            long q0 = current / divisor;
+
+            remainder += (current % divisor) * divided;
+            divided *= divisor;
+            high = q3 << 32 | q2;
+            low = q1 << 32 | q0;
+            remaining -= step;
+        }
+        if (high != 0 || low < 0) {
+            throw new ArithmeticException("Fixed-point product overflows a long");
+        }
+        if (remainder >= divided - remainder) {
+            low = Math.incrementExact(low);
+        }
+        return low;
+    }
+
+    /**
+     * Converts {@code amount} at {@code rate} and rounds the result HALF_UP to {@code resultScale} decimal places.
+     * Amounts and rates outside the fixed-point range are computed with {@link BigDecimal} instead, from the same
+     * rounded rate.
+     */
+    public static BigDecimal convert(BigDecimal amount, double rate, int resultScale) {
+        boolean rateFits = rate >= 0 && rate < MAX_RATE;
+        if (rateFits && amount.signum() >= 0) {
+            int amountScale = Math.max(amount.scale(), 0);
+            BigInteger unscaled = amount.setScale(amountScale).unscaledValue();
+            if (unscaled.bitLength() < Long.SIZE) {
+                try {
+                    return BigDecimal.valueOf(multiply(unscaled.longValue(), amountScale, toRateUnits(rate), resultScale), resultScale);
+                } catch (ArithmeticException e) {
+                    // scales too far apart or a product beyond a long, computed below
+                }
+            }
+        }
+        BigDecimal exactRate = rateFits ? BigDecimal.valueOf(toRateUnits(rate), RATE_SCALE) : BigDecimal.valueOf(rate);
+        return amount.multiply(exactRate).setScale(resultScale, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,38 @@
+package com.exchange.forex.money;
+
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Number of decimal places of each currency's minor unit, as defined by ISO 4217: two for USD, zero for JPY,
+ * three for KWD. Codes the JDK does not know, and ISO codes without a minor unit such as XAU, get
+ * {@value #DEFAULT_MINOR_UNITS}.
+ */
+public final class MinorUnits {
+
+    public static final int DEFAULT_MINOR_UNITS = 2;
+
+    private static final Map<String, Integer> CACHE = new ConcurrentHashMap<>();
+
+    private MinorUnits() {
+    }
+
+    public static int of(String currencyCode) {
+        Integer digits = CACHE.get(currencyCode);
+        if (digits == null) {
+            digits = lookup(currencyCode);
+            CACHE.putIfAbsent(currencyCode, digits);
+        }
+        return digits;
+    }
+
+    private static int lookup(String currencyCode) {
+        try {
+            int digits = Currency.getInstance(currencyCode).getDefaultFractionDigits();
+            return digits < 0 ? DEFAULT_MINOR_UNITS : digits;
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_MINOR_UNITS;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.exchange.forex.persistence;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.money.MinorUnits;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Stored conversion. The transaction id is the primary key; the conversion date index is ordered like the
+ * in-memory history so date pages and cursors are answered from the index.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(
+    name = "conversions",
+    indexes = @Index(name = "idx_conversions_date", columnList = "conversion_date, transaction_id")
+)
+public class ConversionRecord {
+
+    static final String INSERT_SQL = "INSERT INTO conversions (transaction_id, source_currency, target_currency, " +
+        "source_amount, converted_amount, exchange_rate, stale_rate, conversion_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static final String SELECT_BY_DATE_SQL = "SELECT transaction_id, source_currency, target_currency, source_amount, " +
+        "converted_amount, exchange_rate, stale_rate, conversion_date FROM conversions " +
+        "WHERE conversion_date >= ? AND conversion_date < ? ORDER BY conversion_date, transaction_id";
+
+    @Id
+    @Column(name = "transaction_id", length = 36)
+    private String transactionId;
+
+    @Column(name = "source_currency", length = 3, nullable = false)
+    private String sourceCurrency;
+
+    @Column(name = "target_currency", length = 3, nullable = false)
+    private String targetCurrency;
+
+    @Column(name = "source_amount", precision = 38, scale = 10, nullable = false)
+    private BigDecimal sourceAmount;
+
+    /** Scale 4 holds the minor unit of every ISO 4217 currency, e.g. three places for KWD and four for CLF. */
+    @Column(name = "converted_amount", precision = 38, scale = 4, nullable = false)
+    private BigDecimal convertedAmount;
+
+    @Column(name = "exchange_rate", nullable = false)
+    private double exchangeRate;
+
+    @Column(name = "stale_rate", nullable = false)
+    private boolean staleRate;
+
+    @Column(name = "conversion_date", nullable = false)
+    private LocalDateTime conversionDate;
+
+    public ConversionResponse toResponse() {
+        ConversionResponse response = new ConversionResponse();
+        response.setTransactionId(transactionId);
+        response.setSourceCurrency(sourceCurrency);
+        response.setTargetCurrency(targetCurrency);
+        response.setSourceAmount(withoutPadding(sourceAmount));
+        response.setConvertedAmount(inMinorUnits(convertedAmount, targetCurrency));
+        response.setExchangeRate(exchangeRate);
+        response.setStaleRate(staleRate);
+        response.setConversionDate(conversionDate);
+        return response;
+    }
+
+    /** Reads the current row of a result set selecting the columns in {@link #SELECT_BY_DATE_SQL} order. */
+    static ConversionRecord fromRow(ResultSet row) throws SQLException {
+        ConversionRecord record = new ConversionRecord();
+        record.setTransactionId(row.getString(1));
+        record.setSourceCurrency(row.getString(2));
+        record.setTargetCurrency(row.getString(3));
+        record.setSourceAmount(row.getBigDecimal(4));
+        record.setConvertedAmount(row.getBigDecimal(5));
+        record.setExchangeRate(row.getDouble(6));
+        record.setStaleRate(row.getBoolean(7));
+        record.setConversionDate(row.getTimestamp(8).toLocalDateTime());
+        return record;
+    }
+
+    /** Drops the zeros the fixed column scale pads the amount with, without switching to exponent notation. */
+    private static BigDecimal withoutPadding(BigDecimal amount) {
+        BigDecimal stripped = amount.stripTrailingZeros();
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+    }
+
+    /**
+     * Restores the scale the amount was converted to, the minor unit of {@code currency}: the column pads KWD to
+     * four places and JPY to four zeros, while the response carried three and none.
+     */
+    private static BigDecimal inMinorUnits(BigDecimal amount, String currency) {
+        BigDecimal stripped = withoutPadding(amount);
+        int minorUnits = MinorUnits.of(currency);
+        return stripped.scale() < minorUnits ? stripped.setScale(minorUnits) : stripped;
+    }
+}
@@ -0,0 +1,30 @@
+package com.exchange.forex.persistence;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ConversionRecordRepository extends JpaRepository<ConversionRecord, String> {
+
+    List<ConversionRecord> findByConversionDateGreaterThanEqualAndConversionDateLessThanOrderByConversionDateAscTransactionIdAsc(
+        LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    long countByConversionDateGreaterThanEqualAndConversionDateLessThan(LocalDateTime from, LocalDateTime to);
+
+    @Query("select max(c.conversionDate) from ConversionRecord c")
+    LocalDateTime findLatestConversionDate();
+
+    @Query("select c from ConversionRecord c " +
+        "where c.conversionDate < :to " +
+        "and (c.conversionDate > :conversionDate or (c.conversionDate = :conversionDate and c.transactionId > :transactionId)) " +
+        "order by c.conversionDate, c.transactionId")
+    List<ConversionRecord> findAfter(
+        @Param("conversionDate") LocalDateTime conversionDate,
+        @Param("transactionId") String transactionId,
+        @Param("to") LocalDateTime to,
+        Pageable pageable);
+}
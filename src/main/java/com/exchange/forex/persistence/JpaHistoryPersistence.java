@@ -0,0 +1,216 @@
+package com.exchange.forex.persistence;
+
+import com.exchange.forex.config.HistoryProperties;
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.history.ConversionHistoryStore;
+import com.exchange.forex.history.HistoryCursor;
+import com.exchange.forex.history.HistoryPage;
+import com.exchange.forex.history.HistoryPersistence;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Stores the conversion history in the JPA datasource. {@link #append} only offers the conversion to a bounded
+ * queue; a single writer thread drains it and inserts up to {@code batch-size} rows per JDBC batch, at the latest
+ * {@code max-delay} after the first queued conversion. Inserts go through {@link JdbcTemplate} because saving
+ * entities with assigned ids through JPA selects each one before inserting it. When the queue is full the
+ * conversion is not persisted and counted as dropped rather than making the caller wait.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "conversion.history.persistence.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaHistoryPersistence implements HistoryPersistence {
+
+    /** How often an idle writer checks whether it has been stopped. */
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final ConversionRecordRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<ConversionResponse> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public JpaHistoryPersistence(ConversionRecordRepository repository, JdbcTemplate jdbcTemplate, HistoryProperties properties) {
+        HistoryProperties.Persistence persistence = properties.getPersistence();
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(persistence.getQueueCapacity());
+        this.batchSize = persistence.getBatchSize();
+        this.maxDelayNanos = persistence.getMaxDelay().toNanos();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("history-writer").daemon().start(this::writeLoop);
+    }
+
+    /** Stops the writer without interrupting it, since an interrupted H2 file channel closes the database. */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+    }
+
+    @Override
+    public void append(ConversionResponse conversion) {
+        if (!queue.offer(conversion)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public ConversionResponse findById(String transactionId) {
+        return repository.findById(transactionId).map(ConversionRecord::toResponse).orElse(null);
+    }
+
+    /** {@code offset} is expected to be a multiple of {@code limit}, as it is for page/size requests. */
+    @Override
+    public HistoryPage findByDate(LocalDate date, long offset, int limit) {
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+        List<ConversionRecord> records = repository
+            .findByConversionDateGreaterThanEqualAndConversionDateLessThanOrderByConversionDateAscTransactionIdAsc(
+                from, to, PageRequest.of((int) (offset / limit), limit));
+        long total = repository.countByConversionDateGreaterThanEqualAndConversionDateLessThan(from, to);
+        return toPage(records, limit, total, offset + records.size() < total);
+    }
+
+    @Override
+    public HistoryPage findAfter(HistoryCursor cursor, int limit) {
+        LocalDate date = cursor.conversionDate().toLocalDate();
+        List<ConversionRecord> records = repository.findAfter(cursor.conversionDate(), cursor.transactionId(),
+            date.plusDays(1).atStartOfDay(), PageRequest.of(0, limit + 1));
+        long total = repository.countByConversionDateGreaterThanEqualAndConversionDateLessThan(
+            date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        return toPage(records, limit, total, records.size() > limit);
+    }
+
+    /**
+     * Streams the day through a forward-only JDBC cursor fetching {@value #EXPORT_FETCH_SIZE} rows at a time,
+     * so the rows are never loaded together.
+     */
+    @Override
+    public long forEachOnDate(LocalDate date, Consumer<ConversionResponse> consumer) {
+        long[] count = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ConversionRecord.SELECT_BY_DATE_SQL);
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(date.atStartOfDay()));
+            statement.setTimestamp(2, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+            return statement;
+        }, (RowCallbackHandler) row -> {
+            consumer.accept(ConversionRecord.fromRow(row).toResponse());
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /** Days up to the newest stored conversion are answered from the database rather than from memory. */
+    @Override
+    public void restore(ConversionHistoryStore store) {
+        LocalDateTime latest = repository.findLatestConversionDate();
+        if (latest != null) {
+            store.markIncompleteThrough(latest);
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /** Writes everything queued so far in batches of {@code batch-size}. */
+    void flush() {
+        List<ConversionResponse> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+        }
+    }
+
+    private void writeLoop() {
+        List<ConversionResponse> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ConversionResponse first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) == 0) {
+                        ConversionResponse next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<ConversionResponse> batch) {
+        try {
+            jdbcTemplate.batchUpdate(ConversionRecord.INSERT_SQL, batch, batch.size(), (statement, conversion) -> {
+                statement.setString(1, conversion.getTransactionId());
+                statement.setString(2, conversion.getSourceCurrency());
+                statement.setString(3, conversion.getTargetCurrency());
+                statement.setBigDecimal(4, conversion.getSourceAmount());
+                statement.setBigDecimal(5, conversion.getConvertedAmount());
+                statement.setDouble(6, conversion.getExchangeRate());
+                statement.setBoolean(7, conversion.isStaleRate());
+                statement.setTimestamp(8, Timestamp.valueOf(conversion.getConversionDate()));
+            });
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            dropped.add(batch.size());
+            log.warn("Could not persist {} conversions: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static HistoryPage toPage(List<ConversionRecord> records, int limit, long total, boolean hasMore) {
+        List<ConversionResponse> content = new ArrayList<>(Math.min(limit, records.size()));
+        for (int i = 0; i < records.size() && i < limit; i++) {
+            content.add(records.get(i).toResponse());
+        }
+        HistoryCursor nextCursor = hasMore && !content.isEmpty() ? HistoryCursor.after(content.get(content.size() - 1)) : null;
+        return new HistoryPage(content, total, nextCursor);
+    }
+}
@@ -0,0 +1,200 @@
+package com.exchange.forex.service;
+
+import com.exchange.forex.config.BulkJobProperties;
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.exception.BulkJobNotFoundException;
+import com.exchange.forex.metrics.ConversionMetrics;
+import com.exchange.forex.model.BulkJob;
+import com.exchange.forex.model.BulkJobStatus;
+import com.exchange.forex.stream.ConversionStreamWriter;
+import com.exchange.forex.stream.ConversionStreamWriters;
+import com.exchange.forex.stream.StreamFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs bulk conversions in the background. The upload is copied to disk before the job is queued so
+ * the request can return immediately, results are streamed to a file next to it, and finished jobs are
+ * evicted together with their files once {@code conversion.bulk.jobs.ttl} has passed and no download of the
+ * result is open.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkConversionJobService {
+
+    private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+
+    private final CurrencyConversionService conversionService;
+    private final ConversionStreamWriters streamWriters;
+    private final BulkJobProperties properties;
+    private final ThreadPoolExecutor bulkJobExecutor;
+    private final ConversionMetrics metrics;
+
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * @throws RejectedExecutionException if all workers are busy and the queue is full
+     */
+    public BulkJob submit(InputStream csv, StreamFormat format) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Files.createDirectories(properties.getDirectory());
+        Path inputFile = properties.getDirectory().resolve(id + ".csv");
+        Path resultFile = properties.getDirectory().resolve(id + "-result." + format.getFileExtension());
+        try {
+            Files.copy(csv, inputFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            deleteFile(inputFile);
+            throw e;
+        }
+
+        BulkJob job = new BulkJob(id, format, inputFile, resultFile, clock.instant());
+        jobs.put(id, job);
+        try {
+            bulkJobExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            deleteFiles(job);
+            throw e;
+        }
+        return job;
+    }
+
+    public BulkJob getJob(String id) {
+        BulkJob job = jobs.get(id);
+        if (job == null) {
+            throw new BulkJobNotFoundException("Bulk job not found: " + id);
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictExpired() {
+        Instant expiredBefore = clock.instant().minus(properties.getTtl());
+        jobs.values().removeIf(job -> {
+            if (!job.getStatus().isFinished() || job.getFinishedAt().isAfter(expiredBefore) || !job.evict()) {
+                return false;
+            }
+            deleteFiles(job);
+            return true;
+        });
+    }
+
+    /**
+     * Opens the result file of {@code job}. The job is not evicted before the returned stream is closed.
+     *
+     * @throws BulkJobNotFoundException if the job has been evicted meanwhile
+     */
+    public InputStream openResult(BulkJob job) throws IOException {
+        if (!job.openDownload()) {
+            throw new BulkJobNotFoundException("Bulk job not found: " + job.getId());
+        }
+        try {
+            return new FilterInputStream(Files.newInputStream(job.getResultFile())) {
+                private boolean closed;
+
+                @Override
+                public void close() throws IOException {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    try {
+                        super.close();
+                    } finally {
+                        job.closeDownload();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            job.closeDownload();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    public long count(BulkJobStatus status) {
+        return jobs.values().stream().filter(job -> job.getStatus() == status).count();
+    }
+
+    /**
+     * Runs {@code job} and records how it ended. An {@link Error} fails the job and deletes its upload like any
+     * other failure, and is then rethrown to the worker.
+     */
+    void run(BulkJob job) {
+        job.start(clock.instant());
+        Throwable failure = null;
+        try (InputStream in = Files.newInputStream(job.getInputFile());
+             OutputStream out = Files.newOutputStream(job.getResultFile());
+             ConversionStreamWriter writer = streamWriters.open(job.getFormat(), out)) {
+            conversionService.streamBulkConversions(in, new BulkConversionListener() {
+                @Override
+                public void onConversion(int rowNumber, ConversionResponse response) {
+                    writer.onConversion(rowNumber, response);
+                    job.rowProcessed(false);
+                    metrics.bulkJobRowProcessed(false);
+                }
+
+                @Override
+                public void onFailure(int rowNumber, String errorMessage) {
+                    writer.onFailure(rowNumber, errorMessage);
+                    job.rowProcessed(true);
+                    metrics.bulkJobRowProcessed(true);
+                }
+
+                @Override
+                public void onComplete(int processedCount, int successfulCount, int failedCount) {
+                    writer.onComplete(processedCount, successfulCount, failedCount);
+                }
+            });
+        } catch (Throwable e) {
+            failure = e;
+        }
+
+        deleteFile(job.getInputFile());
+        if (failure == null) {
+            job.complete(clock.instant());
+            metrics.bulkJobFinished(job.getRowsPerSecond(job.getFinishedAt()));
+        } else {
+            log.warn("Bulk job {} failed", job.getId(), failure);
+            job.fail(clock.instant(), failure instanceof Exception ? failure.getMessage() : failure.toString());
+            if (failure instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private void deleteFiles(BulkJob job) {
+        deleteFile(job.getInputFile());
+        deleteFile(job.getResultFile());
+    }
+
+    private void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.exchange.forex.service;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+
+/**
+ * Receives bulk conversion results one row at a time, in the row order of the uploaded file.
+ */
+public interface BulkConversionListener {
+
+    void onConversion(int rowNumber, ConversionResponse response);
+
+    void onFailure(int rowNumber, String errorMessage);
+
+    /** Called once after the last row. */
+    void onComplete(int processedCount, int successfulCount, int failedCount);
+}
@@ -0,0 +1,114 @@
+package com.exchange.forex.service;
+
+import com.exchange.forex.cache.RateMatrix;
+import com.exchange.forex.cache.RateSnapshot;
+import com.exchange.forex.cache.RateSnapshotCache;
+import com.exchange.forex.cache.RateSnapshotRefreshedEvent;
+import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.model.CurrencyIndex;
+import com.exchange.forex.model.RateQuote;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Clock;
+
+/**
+ * Derives the rate of any currency pair from the single rate table of the pivot currency:
+ * {@code rate(A -> B) = rate(pivot -> B) / rate(pivot -> A)}, rounded to
+ * {@code exchange-rate.cross.precision} significant digits.
+ * <p>
+ * All pairs are computed once per pivot snapshot into a {@link RateMatrix}, so a lookup neither locks nor
+ * allocates until the pivot snapshot expires or is refreshed.
+ */
+@Component
+@RequiredArgsConstructor
+public class CrossRateEngine {
+
+    private final RateSnapshotCache rateSnapshotCache;
+
+    @Value("${exchange-rate.cross.pivot-currency:USD}")
+    private String pivotCurrency = "USD";
+    @Value("${exchange-rate.cross.precision:10}")
+    private int precision = 10;
+
+    private Clock clock = Clock.systemUTC();
+
+    private volatile CrossMatrix crossMatrix = new CrossMatrix(null, RateMatrix.EMPTY);
+
+    public double getExchangeRate(String sourceCurrency, String targetCurrency) throws ExternalServiceException {
+        double rate = crossMatrix.matrix().get(sourceCurrency, targetCurrency, clock.millis());
+        return Double.isNaN(rate) ? quoteFromPivot(sourceCurrency, targetCurrency).rate() : rate;
+    }
+
+    public RateQuote getQuote(String sourceCurrency, String targetCurrency) throws ExternalServiceException {
+        double rate = crossMatrix.matrix().get(sourceCurrency, targetCurrency, clock.millis());
+        return Double.isNaN(rate) ? quoteFromPivot(sourceCurrency, targetCurrency) : new RateQuote(rate, false);
+    }
+
+    /** The cross rates of the last published pivot snapshot; it does not change once returned. */
+    public RateMatrix getMatrix() {
+        return crossMatrix.matrix();
+    }
+
+    private RateQuote quoteFromPivot(String sourceCurrency, String targetCurrency) throws ExternalServiceException {
+        RateSnapshot pivot = rateSnapshotCache.getSnapshot(pivotCurrency);
+        double rate = publish(pivot).get(sourceCurrency, targetCurrency);
+        if (Double.isNaN(rate)) {
+            throw new ExternalServiceException("Exchange rate not available for the specified currency pair");
+        }
+        return new RateQuote(rate, pivot.isExpired(clock.millis()));
+    }
+
+    @EventListener
+    public void onRateSnapshotRefreshed(RateSnapshotRefreshedEvent event) {
+        if (event.snapshot().baseCurrency().equals(pivotCurrency)) {
+            publish(event.snapshot());
+        }
+    }
+
+    private synchronized RateMatrix publish(RateSnapshot pivot) {
+        CrossMatrix current = crossMatrix;
+        if (current.pivot() == pivot
+            || current.pivot() != null && pivot.fetchedAt().isBefore(current.pivot().fetchedAt())) {
+            return current.matrix();
+        }
+        RateMatrix matrix = build(pivot);
+        crossMatrix = new CrossMatrix(pivot, matrix);
+        return matrix;
+    }
+
+    private RateMatrix build(RateSnapshot pivot) {
+        RateMatrix.Builder builder = RateMatrix.builder();
+        int size = builder.size();
+        double[] pivotRates = new double[size];
+        for (int i = 0; i < size; i++) {
+            pivotRates[i] = CurrencyIndex.codeOf(i).equals(pivot.baseCurrency()) ? 1.0 : pivot.rates().get(i);
+        }
+
+        long expiresAt = pivot.expiresAt().toEpochMilli();
+        for (int source = 0; source < size; source++) {
+            if (!(pivotRates[source] > 0)) {
+                continue;
+            }
+            for (int target = 0; target < size; target++) {
+                if (pivotRates[target] > 0) {
+                    builder.rate(source, target, round(pivotRates[target] / pivotRates[source]));
+                }
+            }
+            builder.expiresAt(source, expiresAt);
+        }
+        return builder.build();
+    }
+
+    private double round(double rate) {
+        return new BigDecimal(rate).round(new MathContext(precision, RoundingMode.HALF_UP)).doubleValue();
+    }
+
+    private record CrossMatrix(RateSnapshot pivot, RateMatrix matrix) {
+    }
+}
@@ -1,12 +1,31 @@
 package com.exchange.forex.service;
 
+import com.exchange.forex.analytics.ConversionAnalytics;
+import com.exchange.forex.analytics.DailyAnalytics;
+import com.exchange.forex.cache.RateMatrix;
 import com.exchange.forex.dto.response.ConversionResponse;
 import com.exchange.forex.exception.ExternalServiceException;
-import com.exchange.forex.integration.impl.ExchangeRateProviderService;
+import com.exchange.forex.history.ConversionHistoryStore;
+import com.exchange.forex.history.HistoryCursor;
+import com.exchange.forex.history.HistoryPage;
+import com.exchange.forex.history.HistoryPersistence;
+import com.exchange.forex.history.HistoryStats;
+import com.exchange.forex.id.TransactionId;
+import com.exchange.forex.id.TransactionIdGenerator;
+import com.exchange.forex.metrics.ConversionMetrics;
+import com.exchange.forex.model.CurrencyIndex;
+import com.exchange.forex.model.RateQuote;
+import com.exchange.forex.money.FixedPoint;
+import com.exchange.forex.money.MinorUnits;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,59 +35,57 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CurrencyConversionService{
 
-    private final Map<String, ConversionResponse> conversionHistory = new ConcurrentHashMap<>();
+    /** Rows read before the new pairs among them are resolved and the rows are priced. */
+    private static final int BULK_CHUNK_ROWS = 1024;
 
-    private final ExchangeRateProviderService exchangeRateProviderService;
+    private final ExecutorService bulkExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-    public ConversionResponse convertCurrency(BigDecimal amount, String sourceCurrency, String targetCurrency) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Amount must be greater than zero.");
-        }
-        if (sourceCurrency == null || sourceCurrency.length() != 3) {
-            throw new IllegalArgumentException("Source currency must be a 3-character code.");
-        }
-        if (targetCurrency == null || targetCurrency.length() != 3) {
-            throw new IllegalArgumentException("Target currency must be a 3-character code.");
-        }
+    private final ExchangeRateResolver exchangeRateResolver;
+    private final ConversionHistoryStore historyStore;
+    private final HistoryPersistence historyPersistence;
+    private final ConversionAnalytics analytics;
+    private final ConversionMetrics metrics;
+    private final TransactionIdGenerator transactionIdGenerator;
 
-        double exchangeRate;
-        try {
-            exchangeRate = exchangeRateProviderService.getExchangeRate(sourceCurrency, targetCurrency);
-        } catch (ExternalServiceException e) {
-            throw new RuntimeException("Failed to convert currency: " + e.getMessage(), e);
-        }
-
-        BigDecimal convertedAmount = amount.multiply(BigDecimal.valueOf(exchangeRate)).setScale(2, RoundingMode.HALF_UP);
-        String transactionId = UUID.randomUUID().toString();
-        LocalDateTime now = LocalDateTime.now();
+    @Value("${conversion.bulk.parallelism:16}")
+    private int bulkParallelism = 16;
 
-        ConversionResponse response = new ConversionResponse();
-        response.setTransactionId(transactionId);
-        response.setConvertedAmount(convertedAmount);
-        response.setSourceCurrency(sourceCurrency);
-        response.setTargetCurrency(targetCurrency);
-        response.setSourceAmount(amount);
-        response.setExchangeRate(exchangeRate);
-        response.setConversionDate(now);
+    /** Rebuilds the in-memory history from, or bounds it against, the history persisted by earlier runs. */
+    @PostConstruct
+    public void restoreHistory() {
+        historyPersistence.restore(historyStore);
+    }
 
-        conversionHistory.put(transactionId, response);
-        return response;
+    public ConversionResponse convertCurrency(BigDecimal amount, String sourceCurrency, String targetCurrency) {
+        Timer.Sample sample = metrics.startConversion();
+        try {
+            validateConversion(amount, sourceCurrency, targetCurrency);
+            ConversionResponse response = recordConversion(amount, sourceCurrency, targetCurrency,
+                resolveQuote(sourceCurrency, targetCurrency));
+            metrics.conversionSucceeded(sample, response.isStaleRate());
+            return response;
+        } catch (RuntimeException e) {
+            metrics.conversionFailed(sample);
+            throw e;
+        }
     }
 
     public Map<String, Object> getConversionHistory(String transactionId, LocalDate date, int page, int size) {
@@ -77,27 +94,23 @@ public class CurrencyConversionService{
         }
 
         try {
-            List<ConversionResponse> filteredList = new ArrayList<>(conversionHistory.values());
-
+            Pageable pageable = PageRequest.of(page, size);
+            List<ConversionResponse> pagedList;
+            long totalItems;
+            Map<String, Object> result = new HashMap<>();
             if (transactionId != null) {
-                filteredList = filteredList.stream()
-                    .filter(conversion -> conversion.getTransactionId().equals(transactionId))
-                    .collect(Collectors.toList());
-            } else if (date != null) {
-                final LocalDate filterDate = date;
-                filteredList = filteredList.stream()
-                    .filter(conversion -> conversion.getConversionDate().toLocalDate().equals(filterDate))
-                    .collect(Collectors.toList());
+                ConversionResponse conversion = findConversion(transactionId);
+                totalItems = conversion != null ? 1 : 0;
+                pagedList = conversion != null && pageable.getOffset() == 0 ? List.of(conversion) : List.of();
+            } else {
+                HistoryPage historyPage = historyStore.isComplete(date)
+                    ? historyStore.findByDate(date, pageable.getOffset(), pageable.getPageSize())
+                    : historyPersistence.findByDate(date, pageable.getOffset(), pageable.getPageSize());
+                totalItems = historyPage.totalElements();
+                pagedList = historyPage.content();
+                result.put("nextCursor", encode(historyPage.nextCursor()));
             }
 
-            int totalItems = filteredList.size();
-            Pageable pageable = PageRequest.of(page, size);
-            int start = (int) pageable.getOffset();
-            int end = Math.min((start + pageable.getPageSize()), totalItems);
-
-            List<ConversionResponse> pagedList = (start > totalItems) ? Collections.emptyList() : filteredList.subList(start, end);
-
-            Map<String, Object> result = new HashMap<>();
             result.put("content", pagedList);
             result.put("pageable", Map.of(
                 "pageNumber", pageable.getPageNumber(),
@@ -111,37 +124,282 @@ public class CurrencyConversionService{
         }
     }
 
+    /**
+     * Returns the page of the day's conversions that follows the conversion {@code cursor} was issued for.
+     * Each page costs a lookup plus the page itself, and conversions added meanwhile do not shift pages.
+     */
+    public Map<String, Object> getConversionHistoryAfter(String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        HistoryCursor historyCursor = HistoryCursor.decode(cursor);
+        HistoryPage historyPage = historyStore.isComplete(historyCursor.conversionDate().toLocalDate())
+            ? historyStore.findAfter(historyCursor, size)
+            : historyPersistence.findAfter(historyCursor, size);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", historyPage.content());
+        result.put("nextCursor", encode(historyPage.nextCursor()));
+        result.put("pageable", Map.of(
+            "pageSize", size,
+            "totalElements", historyPage.totalElements()
+        ));
+        return result;
+    }
+
+    /**
+     * Hands every conversion made from {@code from} through {@code to} to {@code consumer}, day by day and oldest
+     * first. Each day is read straight from the in-memory history, or from persistence when the history no longer
+     * holds all of it, so nothing is collected however many conversions the range holds.
+     *
+     * @return the number of conversions handed over
+     */
+    public long exportConversions(LocalDate from, LocalDate to, Consumer<ConversionResponse> consumer) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Export range must not end before it starts");
+        }
+        long count = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            count += historyStore.isComplete(date)
+                ? historyStore.forEachOnDate(date, consumer)
+                : historyPersistence.forEachOnDate(date, consumer);
+        }
+        return count;
+    }
+
+    /** Per-pair totals of the conversions made on {@code date}, read without touching the history. */
+    public DailyAnalytics getAnalytics(LocalDate date, int top) {
+        return analytics.getDay(date, top);
+    }
+
+    public HistoryStats getHistoryStats() {
+        return historyStore.getStats();
+    }
+
+    /**
+     * Converts every row of the CSV. Results are collected in row order and a failing row only fails itself.
+     * Every row is priced off the rate matrix published when the file starts; only pairs whose base currency
+     * it does not hold unexpired are resolved, once per file, so every row of a pair is priced at the same rate.
+     */
     public Map<String, Object> processBulkConversions(InputStream inputStream) {
         List<ConversionResponse> successfulConversions = new ArrayList<>();
         List<Map<String, Object>> failedConversions = new ArrayList<>();
-        int processedCount = 0;
+        Map<String, Object> result = new HashMap<>();
+
+        streamBulkConversions(inputStream, new BulkConversionListener() {
+            @Override
+            public void onConversion(int rowNumber, ConversionResponse response) {
+                successfulConversions.add(response);
+            }
+
+            @Override
+            public void onFailure(int rowNumber, String errorMessage) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("rowNumber", rowNumber);
+                error.put("errorMessage", errorMessage);
+                failedConversions.add(error);
+            }
+
+            @Override
+            public void onComplete(int processedCount, int successfulCount, int failedCount) {
+                result.put("processedCount", processedCount);
+            }
+        });
+
+        result.put("successfulConversions", successfulConversions);
+        result.put("failedConversions", failedConversions);
+        return result;
+    }
+
+    /**
+     * Converts the CSV like {@link #processBulkConversions(InputStream)} but hands each result to
+     * {@code listener} as soon as it is next in row order instead of collecting it, so memory does not
+     * grow with the size of the file.
+     */
+    public void streamBulkConversions(InputStream inputStream, BulkConversionListener listener) {
+        int[] successfulCount = new int[1];
+        int processedCount = convertRows(inputStream, row -> {
+            if (row.response() != null) {
+                successfulCount[0]++;
+                listener.onConversion(row.rowNumber(), row.response());
+            } else {
+                listener.onFailure(row.rowNumber(), row.errorMessage());
+            }
+        });
+        listener.onComplete(processedCount, successfulCount[0], processedCount - successfulCount[0]);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkExecutor.shutdown();
+    }
+
+    /**
+     * Reads the CSV in chunks of {@value #BULK_CHUNK_ROWS} rows. The pairs of a chunk that have not been seen
+     * in this file yet are taken from the rate matrix captured when the file starts, so a refresh during the
+     * file does not change its prices. Pairs the matrix cannot price are resolved on virtual threads, at most
+     * {@code conversion.bulk.parallelism} at once. The rows are then priced in order against the pair quotes.
+     * Returns the number of rows read.
+     */
+    private int convertRows(InputStream inputStream, Consumer<BulkRowResult> consumer) {
+        Map<String, PairQuote> quotes = new HashMap<>();
+        RateMatrix matrix = exchangeRateResolver.getMatrix();
+        long capturedAt = System.currentTimeMillis();
+        List<BulkRow> chunk = new ArrayList<>(BULK_CHUNK_ROWS);
+        int rowNumber = 0;
 
         try (Reader reader = new InputStreamReader(inputStream);
              CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withTrim())) {
 
             for (CSVRecord record : parser) {
-                processedCount++;
-                try {
-                    BigDecimal amount = new BigDecimal(record.get("amount"));
-                    String sourceCurrency = record.get("sourceCurrency");
-                    String targetCurrency = record.get("targetCurrency");
-                    ConversionResponse response = convertCurrency(amount, sourceCurrency, targetCurrency);
-                    successfulConversions.add(response);
-                } catch (Exception e) {
-                    Map<String, Object> error = new HashMap<>();
-                    error.put("rowNumber", processedCount);
-                    error.put("errorMessage", e.getMessage());
-                    failedConversions.add(error);
+                chunk.add(parseRow(++rowNumber, record));
+                if (chunk.size() == BULK_CHUNK_ROWS) {
+                    convertChunk(chunk, matrix, capturedAt, quotes, consumer);
                 }
             }
+            convertChunk(chunk, matrix, capturedAt, quotes, consumer);
         } catch (IOException e) {
             throw new RuntimeException("Error processing CSV file: " + e.getMessage(), e);
         }
+        return rowNumber;
+    }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("processedCount", processedCount);
-        result.put("successfulConversions", successfulConversions);
-        result.put("failedConversions", failedConversions);
-        return result;
+    private void convertChunk(List<BulkRow> chunk, RateMatrix matrix, long capturedAt, Map<String, PairQuote> quotes,
+                              Consumer<BulkRowResult> consumer) {
+        resolveNewPairs(chunk, matrix, capturedAt, quotes);
+        for (BulkRow row : chunk) {
+            consumer.accept(convertRow(row, quotes));
+        }
+        chunk.clear();
+    }
+
+    private void resolveNewPairs(List<BulkRow> chunk, RateMatrix matrix, long capturedAt, Map<String, PairQuote> quotes) {
+        Semaphore permits = new Semaphore(Math.max(1, bulkParallelism));
+        Map<String, CompletableFuture<PairQuote>> pending = new HashMap<>();
+        try {
+            for (BulkRow row : chunk) {
+                if (row.errorMessage() != null || quotes.containsKey(row.pair()) || pending.containsKey(row.pair())) {
+                    continue;
+                }
+                double rate = matrix.get(row.sourceCurrency(), row.targetCurrency(), capturedAt);
+                if (!Double.isNaN(rate)) {
+                    quotes.put(row.pair(), new PairQuote(new RateQuote(rate, false), null));
+                    continue;
+                }
+                permits.acquireUninterruptibly();
+                pending.put(row.pair(), CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return lookupPair(row.sourceCurrency(), row.targetCurrency());
+                    } finally {
+                        permits.release();
+                    }
+                }, bulkExecutor));
+            }
+            pending.forEach((pair, quote) -> quotes.put(pair, quote.join()));
+        } finally {
+            pending.values().forEach(quote -> quote.cancel(false));
+        }
+    }
+
+    private PairQuote lookupPair(String sourceCurrency, String targetCurrency) {
+        try {
+            return new PairQuote(resolveQuote(sourceCurrency, targetCurrency), null);
+        } catch (Exception e) {
+            return new PairQuote(null, e.getMessage());
+        }
+    }
+
+    private BulkRow parseRow(int rowNumber, CSVRecord record) {
+        try {
+            BigDecimal amount = new BigDecimal(record.get("amount"));
+            String sourceCurrency = record.get("sourceCurrency");
+            String targetCurrency = record.get("targetCurrency");
+            validateConversion(amount, sourceCurrency, targetCurrency);
+            return new BulkRow(rowNumber, amount, sourceCurrency, targetCurrency, null);
+        } catch (Exception e) {
+            return new BulkRow(rowNumber, null, null, null, e.getMessage());
+        }
+    }
+
+    private BulkRowResult convertRow(BulkRow row, Map<String, PairQuote> quotes) {
+        if (row.errorMessage() != null) {
+            return new BulkRowResult(row.rowNumber(), null, row.errorMessage());
+        }
+        PairQuote quote = quotes.get(row.pair());
+        if (quote.errorMessage() != null) {
+            return new BulkRowResult(row.rowNumber(), null, quote.errorMessage());
+        }
+        ConversionResponse response = recordConversion(row.amount(), row.sourceCurrency(), row.targetCurrency(), quote.quote());
+        return new BulkRowResult(row.rowNumber(), response, null);
+    }
+
+    private ConversionResponse findConversion(String transactionId) {
+        ConversionResponse conversion = historyStore.get(transactionId);
+        return conversion != null ? conversion : historyPersistence.findById(transactionId);
+    }
+
+    private static String encode(HistoryCursor cursor) {
+        return cursor != null ? cursor.encode() : null;
+    }
+
+    private void validateConversion(BigDecimal amount, String sourceCurrency, String targetCurrency) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero.");
+        }
+        if (!CurrencyIndex.isCode(sourceCurrency)) {
+            throw new IllegalArgumentException("Source currency must be a 3-letter upper-case code.");
+        }
+        if (!CurrencyIndex.isCode(targetCurrency)) {
+            throw new IllegalArgumentException("Target currency must be a 3-letter upper-case code.");
+        }
+    }
+
+    private RateQuote resolveQuote(String sourceCurrency, String targetCurrency) {
+        try {
+            return exchangeRateResolver.getQuote(sourceCurrency, targetCurrency);
+        } catch (ExternalServiceException e) {
+            throw new RuntimeException("Failed to convert currency: " + e.getMessage(), e);
+        }
+    }
+
+    private ConversionResponse recordConversion(BigDecimal amount, String sourceCurrency, String targetCurrency, RateQuote quote) {
+        double exchangeRate = quote.rate();
+
+        BigDecimal convertedAmount = FixedPoint.convert(amount, exchangeRate, MinorUnits.of(targetCurrency));
+        TransactionId id = transactionIdGenerator.next();
+        String transactionId = id.value();
+        LocalDateTime now = LocalDateTime.ofInstant(id.issuedAt(), ZoneId.systemDefault());
+
+        ConversionResponse response = new ConversionResponse();
+        response.setTransactionId(transactionId);
+        response.setConvertedAmount(convertedAmount);
+        response.setSourceCurrency(sourceCurrency);
+        response.setTargetCurrency(targetCurrency);
+        response.setSourceAmount(amount);
+        response.setExchangeRate(exchangeRate);
+        response.setStaleRate(quote.stale());
+        response.setConversionDate(now);
+
+        historyStore.add(response);
+        historyPersistence.append(response);
+        // The conversion is stored by now, so failing to count it must not fail the request.
+        try {
+            analytics.record(response);
+        } catch (RuntimeException e) {
+            log.warn("Could not record conversion {} in the analytics: {}", transactionId, e.getMessage());
+        }
+        return response;
+    }
+
+    private record BulkRow(int rowNumber, BigDecimal amount, String sourceCurrency, String targetCurrency, String errorMessage) {
+        String pair() {
+            return sourceCurrency + targetCurrency;
+        }
+    }
+
+    private record PairQuote(RateQuote quote, String errorMessage) {
+    }
+
+    private record BulkRowResult(int rowNumber, ConversionResponse response, String errorMessage) {
     }
 }
@@ -0,0 +1,45 @@
+package com.exchange.forex.service;
+
+import com.exchange.forex.cache.RateMatrix;
+import com.exchange.forex.cache.RateSnapshotCache;
+import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.model.RateQuote;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateResolver {
+
+    private final RateSnapshotCache rateSnapshotCache;
+    private final CrossRateEngine crossRateEngine;
+
+    @Value("${exchange-rate.mode:DIRECT}")
+    private RateMode mode = RateMode.DIRECT;
+
+    public double getExchangeRate(String sourceCurrency, String targetCurrency) throws ExternalServiceException {
+        if (mode == RateMode.CROSS) {
+            return crossRateEngine.getExchangeRate(sourceCurrency, targetCurrency);
+        }
+        return rateSnapshotCache.getExchangeRate(sourceCurrency, targetCurrency);
+    }
+
+    public RateQuote getQuote(String sourceCurrency, String targetCurrency) throws ExternalServiceException {
+        if (mode == RateMode.CROSS) {
+            return crossRateEngine.getQuote(sourceCurrency, targetCurrency);
+        }
+        return rateSnapshotCache.getQuote(sourceCurrency, targetCurrency);
+    }
+
+    /**
+     * The rates currently published for the configured mode as one immutable matrix, for pricing many
+     * conversions off the same refresh.
+     */
+    public RateMatrix getMatrix() {
+        if (mode == RateMode.CROSS) {
+            return crossRateEngine.getMatrix();
+        }
+        return rateSnapshotCache.getMatrix();
+    }
+}
@@ -1,27 +1,61 @@
 package com.exchange.forex.service;
 
 import com.exchange.forex.exception.ExternalServiceException;
-import com.exchange.forex.integration.impl.ExchangeRateProviderService;
+import com.exchange.forex.model.CurrencyIndex;
+import com.exchange.forex.model.RateQuote;
+import com.exchange.forex.timeseries.RateCandle;
+import com.exchange.forex.timeseries.RateHistoryStore;
+import com.exchange.forex.timeseries.RatePoint;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class ExchangeRateService {
 
-    private final ExchangeRateProviderService exchangeRateProviderService;
+    private final ExchangeRateResolver exchangeRateResolver;
+    private final RateHistoryStore rateHistoryStore;
 
     public double getExchangeRate(String sourceCurrency, String targetCurrency) {
-        if (sourceCurrency == null || sourceCurrency.length() != 3) {
-            throw new IllegalArgumentException("Source currency must be a 3-character code.");
-        }
-        if (targetCurrency == null || targetCurrency.length() != 3) {
-            throw new IllegalArgumentException("Target currency must be a 3-character code.");
+        validateCurrencies(sourceCurrency, targetCurrency);
+        try {
+            return exchangeRateResolver.getExchangeRate(sourceCurrency, targetCurrency);
+        } catch (ExternalServiceException e) {
+            throw new RuntimeException("Failed to get exchange rate: " + e.getMessage(), e);
         }
+    }
+
+    public RateQuote getRateQuote(String sourceCurrency, String targetCurrency) {
+        validateCurrencies(sourceCurrency, targetCurrency);
         try {
-            return exchangeRateProviderService.getExchangeRate(sourceCurrency, targetCurrency);
+            return exchangeRateResolver.getQuote(sourceCurrency, targetCurrency);
         } catch (ExternalServiceException e) {
             throw new RuntimeException("Failed to get exchange rate: " + e.getMessage(), e);
         }
     }
+
+    /** The rate of the pair as last fetched at or before {@code at}, or {@code null} if none was fetched by then. */
+    public RatePoint getRateAsOf(String sourceCurrency, String targetCurrency, Instant at) {
+        validateCurrencies(sourceCurrency, targetCurrency);
+        return rateHistoryStore.getAsOf(sourceCurrency, targetCurrency, at);
+    }
+
+    public List<RateCandle> getRateCandles(String sourceCurrency, String targetCurrency, Instant from, Instant to,
+                                           Duration interval) {
+        validateCurrencies(sourceCurrency, targetCurrency);
+        return rateHistoryStore.getCandles(sourceCurrency, targetCurrency, from, to, interval);
+    }
+
+    private void validateCurrencies(String sourceCurrency, String targetCurrency) {
+        if (!CurrencyIndex.isCode(sourceCurrency)) {
+            throw new IllegalArgumentException("Source currency must be a 3-letter upper-case code.");
+        }
+        if (!CurrencyIndex.isCode(targetCurrency)) {
+            throw new IllegalArgumentException("Target currency must be a 3-letter upper-case code.");
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.exchange.forex.service;
+
+/**
+ * How exchange rates are resolved, selected with {@code exchange-rate.mode}.
+ */
+public enum RateMode {
+    /** Every source currency is looked up in its own rate table. */
+    DIRECT,
+    /** Every pair is derived from the rate table of {@code exchange-rate.cross.pivot-currency}. */
+    CROSS
+}
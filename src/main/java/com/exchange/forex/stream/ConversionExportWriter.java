@@ -0,0 +1,15 @@
+package com.exchange.forex.stream;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes stored conversions to an output stream one at a time, as the history hands them over. Output is
+ * flushed every {@value #FLUSH_EVERY_ROWS} rows and on {@link #close()}. Write failures, such as a disconnected
+ * client, surface as {@link UncheckedIOException}.
+ */
+public abstract class ConversionExportWriter extends RowFlushingWriter implements Consumer<ConversionResponse>, Closeable {
+}
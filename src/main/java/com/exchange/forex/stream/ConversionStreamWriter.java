@@ -0,0 +1,14 @@
+package com.exchange.forex.stream;
+
+import com.exchange.forex.service.BulkConversionListener;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes conversion results to an output stream as they arrive. Nothing is kept after a row is
+ * written; output is flushed every {@value #FLUSH_EVERY_ROWS} rows so the client sees progress without
+ * a write per row. Write failures, such as a disconnected client, surface as {@link UncheckedIOException}.
+ */
+public abstract class ConversionStreamWriter extends RowFlushingWriter implements BulkConversionListener, Closeable {
+}
@@ -0,0 +1,33 @@
+package com.exchange.forex.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Opens a {@link ConversionStreamWriter} or {@link ConversionExportWriter} for a {@link StreamFormat}, using the
+ * application's {@link ObjectMapper} so NDJSON rows serialize exactly like the JSON endpoints.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConversionStreamWriters {
+
+    private final ObjectMapper objectMapper;
+
+    public ConversionStreamWriter open(StreamFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonConversionWriter(out, objectMapper);
+            case CSV -> new CsvConversionWriter(out);
+        };
+    }
+
+    public ConversionExportWriter openExport(StreamFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonExportWriter(out, objectMapper);
+            case CSV -> new CsvExportWriter(out);
+        };
+    }
+}
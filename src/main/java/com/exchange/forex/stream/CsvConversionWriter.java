@@ -0,0 +1,75 @@
+package com.exchange.forex.stream;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes one CSV row per result, leaving the conversion columns empty for failed rows, then a
+ * {@code # processedCount=..,successfulCount=..,failedCount=..} comment line.
+ */
+class CsvConversionWriter extends ConversionStreamWriter {
+
+    static final String[] HEADER = {
+        "rowNumber", "status", "transactionId", "sourceCurrency", "targetCurrency", "sourceAmount",
+        "convertedAmount", "exchangeRate", "staleRate", "conversionDate", "errorMessage"
+    };
+
+    private final CSVPrinter printer;
+
+    CsvConversionWriter(OutputStream out) throws IOException {
+        this.printer = new CSVPrinter(
+            new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)),
+            CSVFormat.DEFAULT.builder().setHeader(HEADER).setCommentMarker('#').build());
+    }
+
+    @Override
+    public void onConversion(int rowNumber, ConversionResponse response) {
+        try {
+            printer.printRecord(rowNumber, "SUCCESS", response.getTransactionId(), response.getSourceCurrency(),
+                response.getTargetCurrency(), response.getSourceAmount(), response.getConvertedAmount(),
+                response.getExchangeRate(), response.isStaleRate(), response.getConversionDate(), null);
+            rowWritten();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onFailure(int rowNumber, String errorMessage) {
+        try {
+            printer.printRecord(rowNumber, "FAILED", null, null, null, null, null, null, null, null, errorMessage);
+            rowWritten();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onComplete(int processedCount, int successfulCount, int failedCount) {
+        try {
+            printer.printComment("processedCount=" + processedCount + ",successfulCount=" + successfulCount
+                + ",failedCount=" + failedCount);
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        printer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        printer.close();
+    }
+}
@@ -0,0 +1,53 @@
+package com.exchange.forex.stream;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes one CSV row per conversion under a header naming the conversion fields.
+ */
+class CsvExportWriter extends ConversionExportWriter {
+
+    static final String[] HEADER = {
+        "transactionId", "sourceCurrency", "targetCurrency", "sourceAmount", "convertedAmount", "exchangeRate",
+        "staleRate", "conversionDate"
+    };
+
+    private final CSVPrinter printer;
+
+    CsvExportWriter(OutputStream out) throws IOException {
+        this.printer = new CSVPrinter(
+            new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)),
+            CSVFormat.DEFAULT.builder().setHeader(HEADER).build());
+    }
+
+    @Override
+    public void accept(ConversionResponse conversion) {
+        try {
+            printer.printRecord(conversion.getTransactionId(), conversion.getSourceCurrency(),
+                conversion.getTargetCurrency(), conversion.getSourceAmount(), conversion.getConvertedAmount(),
+                conversion.getExchangeRate(), conversion.isStaleRate(), conversion.getConversionDate());
+            rowWritten();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        printer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        printer.close();
+    }
+}
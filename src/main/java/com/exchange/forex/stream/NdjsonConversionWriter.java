@@ -0,0 +1,78 @@
+package com.exchange.forex.stream;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes {@code {"rowNumber":1,"conversion":{...}}} or {@code {"rowNumber":2,"errorMessage":"..."}} per row,
+ * then {@code {"processedCount":..,"successfulCount":..,"failedCount":..}}.
+ */
+class NdjsonConversionWriter extends ConversionStreamWriter {
+
+    private final JsonGenerator generator;
+
+    NdjsonConversionWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.createGenerator(out);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void onConversion(int rowNumber, ConversionResponse response) {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("rowNumber", rowNumber);
+            generator.writeObjectField("conversion", response);
+            endLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onFailure(int rowNumber, String errorMessage) {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("rowNumber", rowNumber);
+            generator.writeStringField("errorMessage", errorMessage);
+            endLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onComplete(int processedCount, int successfulCount, int failedCount) {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("processedCount", processedCount);
+            generator.writeNumberField("successfulCount", successfulCount);
+            generator.writeNumberField("failedCount", failedCount);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    private void endLine() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        rowWritten();
+    }
+}
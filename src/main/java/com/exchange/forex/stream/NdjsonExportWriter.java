@@ -0,0 +1,43 @@
+package com.exchange.forex.stream;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes each conversion as one JSON line, serialized like the history endpoint serializes it.
+ */
+class NdjsonExportWriter extends ConversionExportWriter {
+
+    private final JsonGenerator generator;
+
+    NdjsonExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.createGenerator(out);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void accept(ConversionResponse conversion) {
+        try {
+            generator.writeObject(conversion);
+            generator.writeRaw('\n');
+            rowWritten();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
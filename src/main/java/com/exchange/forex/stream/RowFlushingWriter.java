@@ -0,0 +1,22 @@
+package com.exchange.forex.stream;
+
+import java.io.IOException;
+
+/**
+ * Flushes every {@value #FLUSH_EVERY_ROWS} rows so the client sees progress without a write per row.
+ */
+abstract class RowFlushingWriter {
+
+    static final int FLUSH_EVERY_ROWS = 64;
+
+    private int unflushedRows;
+
+    protected abstract void flush() throws IOException;
+
+    protected void rowWritten() throws IOException {
+        if (++unflushedRows >= FLUSH_EVERY_ROWS) {
+            flush();
+            unflushedRows = 0;
+        }
+    }
+}
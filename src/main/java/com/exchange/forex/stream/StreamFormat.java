@@ -0,0 +1,42 @@
+package com.exchange.forex.stream;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Output formats for streamed conversion results.
+ */
+public enum StreamFormat {
+    /** One JSON object per line, followed by a totals line. */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    /** A header row and one row per result, followed by a {@code #} comment line with the totals. */
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    StreamFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code value} is not {@code ndjson} or {@code csv}
+     */
+    public static StreamFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported format: " + value + ". Use ndjson or csv.");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.exchange.forex.timeseries;
+
+import java.time.Instant;
+
+/**
+ * The first, highest, lowest and last rate recorded in the interval starting at {@code start}, and the number of
+ * rates recorded in it.
+ */
+public record RateCandle(Instant start, double open, double high, double low, double close, int count) {
+}
@@ -0,0 +1,93 @@
+package com.exchange.forex.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * The points of one pair on one UTC day in two parallel primitive columns: the time as milliseconds since the
+ * start of the day and the rate as the double it was published as, twelve bytes per point. Keeping the double
+ * keeps its relative precision for tiny and huge rates alike, which a fixed-point column cannot.
+ * <p>
+ * Points are appended in time order by a single writer. The columns and the number of points in them are
+ * published together in one immutable {@link Columns}, replaced after every append and trim, so a reader that
+ * reads it once sees both columns filled up to its size. Readers do not lock.
+ */
+final class RateChunk {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private final long startMillis;
+
+    private volatile Columns columns = new Columns(new int[INITIAL_CAPACITY], new double[INITIAL_CAPACITY], 0);
+
+    RateChunk(long startMillis) {
+        this.startMillis = startMillis;
+    }
+
+    /** Appends a point later than the last one; returns {@code false} and keeps the chunk unchanged otherwise. */
+    boolean append(long timestamp, double rate) {
+        Columns current = columns;
+        int n = current.size;
+        int offset = (int) (timestamp - startMillis);
+        if (n > 0 && offset <= current.offsets[n - 1]) {
+            return false;
+        }
+        int[] offsets = current.offsets;
+        double[] rates = current.rates;
+        if (n == offsets.length) {
+            offsets = Arrays.copyOf(offsets, n * 2);
+            rates = Arrays.copyOf(rates, n * 2);
+        }
+        // Slot n is beyond the size readers use, so it can be written in place before the new size is published.
+        offsets[n] = offset;
+        rates[n] = rate;
+        columns = new Columns(offsets, rates, n + 1);
+        return true;
+    }
+
+    /** Drops unused capacity once the day is over and no more points will be appended. */
+    void trim() {
+        Columns current = columns;
+        int n = current.size;
+        columns = new Columns(Arrays.copyOf(current.offsets, n), Arrays.copyOf(current.rates, n), n);
+    }
+
+    int size() {
+        return columns.size;
+    }
+
+    long timestampAt(int index) {
+        return startMillis + columns.offsets[index];
+    }
+
+    double rateAt(int index) {
+        return columns.rates[index];
+    }
+
+    /** Index of the last point at or before {@code timestamp}, or -1 if there is none. */
+    int floorIndex(long timestamp) {
+        Columns current = columns;
+        int[] column = current.offsets;
+        long target = timestamp - startMillis;
+        int low = 0;
+        int high = current.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (column[mid] <= target) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /** Bytes held by the columns, including unused capacity. */
+    long estimatedBytes() {
+        Columns current = columns;
+        return (long) current.offsets.length * Integer.BYTES + (long) current.rates.length * Double.BYTES;
+    }
+
+    /** Indexes below {@code size} are never written again, and columns only grow or are trimmed to {@code size}. */
+    private record Columns(int[] offsets, double[] rates, int size) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.exchange.forex.timeseries;
+
+/**
+ * Number of currency pairs and rates recorded in the rate history and the bytes their columns hold.
+ */
+public record RateHistoryStats(int pairs, long points, long estimatedBytes) {
+}
@@ -0,0 +1,169 @@
+package com.exchange.forex.timeseries;
+
+import com.exchange.forex.cache.RateSnapshot;
+import com.exchange.forex.cache.RateSnapshotRefreshedEvent;
+import com.exchange.forex.model.CurrencyIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every rate of every refreshed rate table, so the rate of a pair can be looked up as of any time since.
+ * Each pair published by the API is kept as a {@link RateSeries}; a pair only published the other way round is
+ * answered by inverting that series. Rates older than {@code exchange-rate.history.retention} are dropped.
+ * <p>
+ * A table is only recorded if it was fetched after the last table recorded for its base currency, so a snapshot
+ * announced more than once adds its points once.
+ */
+@Component
+public class RateHistoryStore {
+
+    /** Upper bound on the candles of one range query. */
+    static final int MAX_CANDLES = 10_000;
+
+    private final ConcurrentMap<String, RateSeries> series = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> lastRecorded = new ConcurrentHashMap<>();
+
+    @Value("${exchange-rate.history.retention:30d}")
+    private Duration retention = Duration.ofDays(30);
+
+    private Clock clock = Clock.systemUTC();
+
+    @EventListener
+    public void onRateSnapshotRefreshed(RateSnapshotRefreshedEvent event) {
+        record(event.snapshot());
+    }
+
+    public void record(RateSnapshot snapshot) {
+        String base = snapshot.baseCurrency();
+        long timestamp = snapshot.fetchedAt().toEpochMilli();
+        boolean[] newer = new boolean[1];
+        lastRecorded.compute(base, (currency, last) -> {
+            newer[0] = last == null || timestamp > last;
+            return newer[0] ? timestamp : last;
+        });
+        if (!newer[0]) {
+            return;
+        }
+        snapshot.rates().forEach((currencyIndex, rate) -> {
+            String quote = CurrencyIndex.codeOf(currencyIndex);
+            if (!quote.equals(base) && rate > 0 && Double.isFinite(rate)) {
+                series.computeIfAbsent(base + quote, pair -> new RateSeries()).append(timestamp, rate);
+            }
+        });
+    }
+
+    /** The rate of the pair last recorded at or before {@code at}, or {@code null} if none was recorded yet. */
+    public RatePoint getAsOf(String sourceCurrency, String targetCurrency, Instant at) {
+        RateSeries direct = series.get(sourceCurrency + targetCurrency);
+        if (direct != null) {
+            return direct.asOf(at.toEpochMilli());
+        }
+        RateSeries inverse = series.get(targetCurrency + sourceCurrency);
+        RatePoint point = inverse != null ? inverse.asOf(at.toEpochMilli()) : null;
+        return point != null ? new RatePoint(point.timestamp(), 1 / point.rate()) : null;
+    }
+
+    /**
+     * Open, high, low and close of the pair for every {@code interval} from {@code from} until {@code to} in which
+     * a rate was recorded, oldest first.
+     */
+    public List<RateCandle> getCandles(String sourceCurrency, String targetCurrency, Instant from, Instant to,
+                                       Duration interval) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Range must end after it starts");
+        }
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        long intervalMillis = interval.toMillis();
+        long start = from.toEpochMilli();
+        if ((to.toEpochMilli() - start) / intervalMillis >= MAX_CANDLES) {
+            throw new IllegalArgumentException("Range spans more than " + MAX_CANDLES + " intervals");
+        }
+
+        RateSeries direct = series.get(sourceCurrency + targetCurrency);
+        RateSeries source = direct != null ? direct : series.get(targetCurrency + sourceCurrency);
+        if (source == null) {
+            return List.of();
+        }
+        boolean inverted = direct == null;
+        CandleBuilder candles = new CandleBuilder(start, intervalMillis);
+        source.forEach(start, to.toEpochMilli(), (timestamp, rate) -> candles.add(timestamp, inverted ? 1 / rate : rate));
+        return candles.build();
+    }
+
+    public RateHistoryStats getStats() {
+        long points = 0;
+        long bytes = 0;
+        for (RateSeries pair : series.values()) {
+            points += pair.points();
+            bytes += pair.estimatedBytes();
+        }
+        return new RateHistoryStats(series.size(), points, bytes);
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void evictExpired() {
+        long oldest = clock.millis() - retention.toMillis();
+        for (RateSeries pair : series.values()) {
+            pair.evictBefore(oldest);
+        }
+    }
+
+    private static final class CandleBuilder {
+
+        private final long start;
+        private final long intervalMillis;
+        private final List<RateCandle> candles = new ArrayList<>();
+
+        private long current = -1;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private int count;
+
+        CandleBuilder(long start, long intervalMillis) {
+            this.start = start;
+            this.intervalMillis = intervalMillis;
+        }
+
+        void add(long timestamp, double rate) {
+            long interval = (timestamp - start) / intervalMillis;
+            if (interval != current) {
+                finishCandle();
+                current = interval;
+                open = rate;
+                high = rate;
+                low = rate;
+                count = 0;
+            }
+            high = Math.max(high, rate);
+            low = Math.min(low, rate);
+            close = rate;
+            count++;
+        }
+
+        List<RateCandle> build() {
+            finishCandle();
+            return candles;
+        }
+
+        private void finishCandle() {
+            if (count > 0) {
+                candles.add(new RateCandle(Instant.ofEpochMilli(start + current * intervalMillis), open, high, low, close, count));
+            }
+        }
+    }
+}
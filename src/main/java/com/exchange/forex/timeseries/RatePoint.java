@@ -0,0 +1,13 @@
+package com.exchange.forex.timeseries;
+
+import java.time.Instant;
+
+/**
+ * A rate of a currency pair and the time it was fetched.
+ */
+public record RatePoint(Instant timestamp, double rate) {
+
+    static RatePoint of(long timestamp, double rate) {
+        return new RatePoint(Instant.ofEpochMilli(timestamp), rate);
+    }
+}
@@ -0,0 +1,87 @@
+package com.exchange.forex.timeseries;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every recorded rate of one currency pair, chunked by UTC day so a lookup only searches one day and old days
+ * are dropped whole.
+ */
+final class RateSeries {
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final ConcurrentNavigableMap<Long, RateChunk> chunks = new ConcurrentSkipListMap<>();
+
+    synchronized boolean append(long timestamp, double rate) {
+        long day = Math.floorDiv(timestamp, DAY_MILLIS);
+        RateChunk chunk = chunks.get(day);
+        if (chunk == null) {
+            Map.Entry<Long, RateChunk> last = chunks.lastEntry();
+            if (last != null && last.getKey() > day) {
+                return false;
+            }
+            if (last != null) {
+                last.getValue().trim();
+            }
+            chunk = new RateChunk(day * DAY_MILLIS);
+            chunks.put(day, chunk);
+        }
+        return chunk.append(timestamp, rate);
+    }
+
+    /** The last point at or before {@code timestamp}, or {@code null} if the series starts later. */
+    RatePoint asOf(long timestamp) {
+        Map.Entry<Long, RateChunk> entry = chunks.floorEntry(Math.floorDiv(timestamp, DAY_MILLIS));
+        while (entry != null) {
+            RateChunk chunk = entry.getValue();
+            int index = chunk.floorIndex(timestamp);
+            if (index >= 0) {
+                return RatePoint.of(chunk.timestampAt(index), chunk.rateAt(index));
+            }
+            entry = chunks.lowerEntry(entry.getKey());
+        }
+        return null;
+    }
+
+    /** Hands the points from {@code from} inclusive to {@code to} exclusive to {@code consumer}, oldest first. */
+    void forEach(long from, long to, PointConsumer consumer) {
+        for (RateChunk chunk : chunks.subMap(Math.floorDiv(from, DAY_MILLIS), true, Math.floorDiv(to, DAY_MILLIS), true).values()) {
+            int size = chunk.size();
+            for (int index = Math.max(0, chunk.floorIndex(from - 1) + 1); index < size; index++) {
+                long timestamp = chunk.timestampAt(index);
+                if (timestamp >= to) {
+                    return;
+                }
+                consumer.accept(timestamp, chunk.rateAt(index));
+            }
+        }
+    }
+
+    void evictBefore(long timestamp) {
+        chunks.headMap(Math.floorDiv(timestamp, DAY_MILLIS)).clear();
+    }
+
+    long points() {
+        long points = 0;
+        for (RateChunk chunk : chunks.values()) {
+            points += chunk.size();
+        }
+        return points;
+    }
+
+    long estimatedBytes() {
+        long bytes = 0;
+        for (RateChunk chunk : chunks.values()) {
+            bytes += chunk.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    @FunctionalInterface
+    interface PointConsumer {
+        void accept(long timestamp, double rate);
+    }
+}
@@ -0,0 +1,104 @@
+package com.exchange.forex.analytics;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionAnalyticsTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 21, 12, 0);
+
+    private final ConversionAnalytics analytics = new ConversionAnalytics();
+
+    @Test
+    void sumsPerPairAndRanksBusiestFirst() {
+        analytics.record(conversion("USD", "EUR", "100.5", "85.43", NOON));
+        analytics.record(conversion("USD", "EUR", "0.00005", "0.00", NOON));
+        analytics.record(conversion("GBP", "JPY", "10", "1900.00", NOON));
+        analytics.record(conversion("GBP", "JPY", "10", "1900.00", NOON));
+        analytics.record(conversion("GBP", "JPY", "10", "1900.00", NOON));
+        analytics.record(conversion("EUR", "USD", "1", "1.08", NOON.plusDays(1)));
+
+        DailyAnalytics day = analytics.getDay(NOON.toLocalDate(), 1);
+
+        assertEquals(5, day.totalCount());
+        assertEquals(2, day.pairCount());
+        assertEquals(List.of(new PairVolume("GBP", "JPY", 3, new BigDecimal("30.0000"), new BigDecimal("5700.0000"))),
+            day.topPairs());
+        PairVolume usdEur = analytics.getDay(NOON.toLocalDate(), 10).topPairs().get(1);
+        assertEquals(new BigDecimal("100.5001"), usdEur.sourceAmount());
+        assertEquals(new BigDecimal("85.4300"), usdEur.convertedAmount());
+    }
+
+    @Test
+    void countsConcurrentConversionsExactly() {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int task = 0; task < 8; task++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    analytics.record(conversion("USD", "EUR", "1.25", "1.07", NOON));
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        executor.shutdown();
+
+        PairVolume volume = analytics.getDay(NOON.toLocalDate(), 1).topPairs().get(0);
+        assertEquals(80_000, volume.count());
+        assertEquals(new BigDecimal("100000.0000"), volume.sourceAmount());
+        assertEquals(new BigDecimal("85600.0000"), volume.convertedAmount());
+    }
+
+    @Test
+    void sumsAmountsBeyondLongUnits() {
+        analytics.record(conversion("USD", "JPY", "1000000000000000", "151460000000000000", NOON));
+        analytics.record(conversion("USD", "JPY", "0.5", "76", NOON));
+
+        PairVolume volume = analytics.getDay(NOON.toLocalDate(), 1).topPairs().get(0);
+        assertEquals(new BigDecimal("1000000000000000.5000"), volume.sourceAmount());
+        assertEquals(new BigDecimal("151460000000000076.0000"), volume.convertedAmount());
+    }
+
+    @Test
+    void dropsDaysPastRetention() {
+        ReflectionTestUtils.setField(analytics, "clock",
+            Clock.fixed(NOON.plusDays(31).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+        analytics.record(conversion("USD", "EUR", "1", "0.85", NOON.minusDays(1)));
+        analytics.record(conversion("USD", "EUR", "1", "0.85", NOON));
+
+        analytics.evictExpired();
+
+        assertEquals(0, analytics.getDay(NOON.toLocalDate().minusDays(1), 1).totalCount());
+        assertEquals(1, analytics.getDay(NOON.toLocalDate(), 1).totalCount());
+    }
+
+    @Test
+    void rejectsNonPositiveTop() {
+        assertThrows(IllegalArgumentException.class, () -> analytics.getDay(LocalDate.now(), 0));
+    }
+
+    private static ConversionResponse conversion(String source, String target, String sourceAmount,
+                                                 String convertedAmount, LocalDateTime date) {
+        ConversionResponse conversion = new ConversionResponse();
+        conversion.setSourceCurrency(source);
+        conversion.setTargetCurrency(target);
+        conversion.setSourceAmount(new BigDecimal(sourceAmount));
+        conversion.setConvertedAmount(new BigDecimal(convertedAmount));
+        conversion.setConversionDate(date);
+        return conversion;
+    }
+}
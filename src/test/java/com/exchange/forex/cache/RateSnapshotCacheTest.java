@@ -0,0 +1,221 @@
+package com.exchange.forex.cache;
+
+import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.integration.impl.ExchangeRateProviderService;
+import com.exchange.forex.model.RateQuote;
+import com.exchange.forex.model.RateTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateSnapshotCacheTest {
+
+    @Mock
+    private ExchangeRateProviderService exchangeRateProviderService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private RateSnapshotCache rateSnapshotCache;
+
+    private static final RateTable USD_RATES = RateTable.of("USD", Map.of("EUR", 0.85, "GBP", 0.75));
+    private static final Instant NOW = Instant.parse("2024-03-21T14:30:00Z");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rateSnapshotCache, "preloadCurrencies", List.of("USD"));
+        setTime(NOW);
+    }
+
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(rateSnapshotCache, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    @Test
+    void getExchangeRateLoadsOnceAndServesFromMemory() throws ExternalServiceException {
+        when(exchangeRateProviderService.getRates("USD")).thenReturn(USD_RATES);
+
+        assertEquals(0.85, rateSnapshotCache.getExchangeRate("USD", "EUR"));
+        assertEquals(0.75, rateSnapshotCache.getExchangeRate("USD", "GBP"));
+
+        verify(exchangeRateProviderService, times(1)).getRates("USD");
+    }
+
+    @Test
+    void getExchangeRatePublishesRefreshedSnapshot() throws ExternalServiceException {
+        when(exchangeRateProviderService.getRates("USD")).thenReturn(USD_RATES);
+
+        rateSnapshotCache.getExchangeRate("USD", "EUR");
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof RateSnapshotRefreshedEvent refreshed
+            && refreshed.snapshot().rates() == USD_RATES
+            && refreshed.snapshot().expiresAt().equals(NOW.plus(Duration.ofMinutes(90)))));
+    }
+
+    @Test
+    void concurrentMissesStoreAndPublishOnce() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(exchangeRateProviderService.getRates("USD")).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await();
+            return USD_RATES;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<RateSnapshot>> snapshots = new ArrayList<>();
+            snapshots.add(executor.submit(() -> rateSnapshotCache.getSnapshot("USD")));
+            assertTrue(fetching.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                snapshots.add(executor.submit(() -> rateSnapshotCache.getSnapshot("USD")));
+            }
+            // Let the followers reach the in-flight load before the leader finishes.
+            Thread.sleep(200);
+            release.countDown();
+
+            RateSnapshot first = snapshots.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<RateSnapshot> snapshot : snapshots) {
+                assertSame(first, snapshot.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(exchangeRateProviderService, times(1)).getRates("USD");
+        verify(eventPublisher, times(1)).publishEvent(any(RateSnapshotRefreshedEvent.class));
+        assertEquals(1, rateSnapshotCache.getMatrixBuildCount());
+    }
+
+    @Test
+    void getExchangeRateUnknownTarget() throws ExternalServiceException {
+        when(exchangeRateProviderService.getRates("USD")).thenReturn(USD_RATES);
+
+        assertThrows(ExternalServiceException.class, () -> rateSnapshotCache.getExchangeRate("USD", "JPY"));
+    }
+
+    @Test
+    void refreshLoadsPreloadAndKnownCurrencies() throws ExternalServiceException {
+        when(exchangeRateProviderService.getRates("USD")).thenReturn(USD_RATES);
+        when(exchangeRateProviderService.getRates("EUR")).thenReturn(RateTable.of("EUR", Map.of("USD", 1.18)));
+        rateSnapshotCache.getExchangeRate("EUR", "USD");
+
+        rateSnapshotCache.refresh();
+
+        verify(exchangeRateProviderService, times(1)).getRates("USD");
+        verify(exchangeRateProviderService, times(2)).getRates("EUR");
+        long misses = rateSnapshotCache.getMissCount();
+        assertEquals(1.18, rateSnapshotCache.getExchangeRate("EUR", "USD"));
+        assertEquals(misses, rateSnapshotCache.getMissCount());
+    }
+
+    @Test
+    void refreshKeepsPreviousSnapshotOnFailure() throws ExternalServiceException {
+        when(exchangeRateProviderService.getRates("USD"))
+            .thenReturn(USD_RATES)
+            .thenThrow(new ExternalServiceException("API Error"));
+        rateSnapshotCache.getExchangeRate("USD", "EUR");
+
+        rateSnapshotCache.refresh();
+
+        assertEquals(0.85, rateSnapshotCache.getExchangeRate("USD", "EUR"));
+    }
+
+    @Test
+    void getExchangeRateReloadsExpiredSnapshot() throws ExternalServiceException {
+        when(exchangeRateProviderService.getRates("USD")).thenReturn(USD_RATES);
+        rateSnapshotCache.getExchangeRate("USD", "EUR");
+
+        setTime(NOW.plus(Duration.ofMinutes(89)));
+        rateSnapshotCache.getExchangeRate("USD", "GBP");
+        verify(exchangeRateProviderService, times(1)).getRates("USD");
+
+        setTime(NOW.plus(Duration.ofMinutes(90)));
+        rateSnapshotCache.getExchangeRate("USD", "GBP");
+        verify(exchangeRateProviderService, times(2)).getRates("USD");
+    }
+
+    @Test
+    void refreshEvictsIdleBaseCurrencies() throws ExternalServiceException {
+        when(exchangeRateProviderService.getRates(anyString())).thenReturn(USD_RATES);
+        rateSnapshotCache.getExchangeRate("USD", "EUR");
+        rateSnapshotCache.getExchangeRate("CHF", "EUR");
+
+        setTime(NOW.plus(Duration.ofMinutes(241)));
+        rateSnapshotCache.refresh();
+
+        assertEquals(1, rateSnapshotCache.size());
+        verify(exchangeRateProviderService, times(1)).getRates("CHF");
+    }
+
+    @Test
+    void loadEvictsColdestBaseCurrencyWhenFull() throws ExternalServiceException {
+        ReflectionTestUtils.setField(rateSnapshotCache, "maxBaseCurrencies", 2);
+        when(exchangeRateProviderService.getRates(anyString())).thenReturn(USD_RATES);
+        rateSnapshotCache.getExchangeRate("CHF", "EUR");
+        setTime(NOW.plusSeconds(1));
+        rateSnapshotCache.getExchangeRate("JPY", "EUR");
+        setTime(NOW.plusSeconds(2));
+        rateSnapshotCache.getExchangeRate("CHF", "EUR");
+        setTime(NOW.plusSeconds(3));
+        rateSnapshotCache.getExchangeRate("SEK", "EUR");
+
+        rateSnapshotCache.getExchangeRate("CHF", "EUR");
+        rateSnapshotCache.getExchangeRate("SEK", "EUR");
+        rateSnapshotCache.getExchangeRate("JPY", "EUR");
+
+        assertEquals(2, rateSnapshotCache.size());
+        verify(exchangeRateProviderService, times(2)).getRates("JPY");
+        verify(exchangeRateProviderService, times(1)).getRates("CHF");
+    }
+
+    @Test
+    void getQuoteServesStaleSnapshotWhenReloadFails() throws ExternalServiceException {
+        when(exchangeRateProviderService.getRates("USD"))
+            .thenReturn(USD_RATES)
+            .thenThrow(new ExternalServiceException("API Error"));
+        assertEquals(new RateQuote(0.85, false), rateSnapshotCache.getQuote("USD", "EUR"));
+
+        setTime(NOW.plus(Duration.ofMinutes(120)));
+
+        assertEquals(new RateQuote(0.85, true), rateSnapshotCache.getQuote("USD", "EUR"));
+        assertEquals(0.75, rateSnapshotCache.getExchangeRate("USD", "GBP"));
+    }
+
+    @Test
+    void getQuoteFailsWhenSnapshotExceedsMaxStaleness() throws ExternalServiceException {
+        when(exchangeRateProviderService.getRates("USD"))
+            .thenReturn(USD_RATES)
+            .thenThrow(new ExternalServiceException("API Error"));
+        rateSnapshotCache.getQuote("USD", "EUR");
+
+        setTime(NOW.plus(Duration.ofMinutes(361)));
+
+        assertThrows(ExternalServiceException.class, () -> rateSnapshotCache.getQuote("USD", "EUR"));
+    }
+}
@@ -2,24 +2,34 @@ package com.exchange.forex.controller;
 
 import com.exchange.forex.dto.request.ConversionRequest;
 import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.model.RateQuote;
+import com.exchange.forex.service.BulkConversionListener;
 import com.exchange.forex.service.CurrencyConversionService;
 import com.exchange.forex.service.ExchangeRateService;
+import com.exchange.forex.stream.ConversionStreamWriters;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +44,9 @@ class ForeignExchangeControllerTest {
     @Mock
     private ExchangeRateService exchangeRateService;
 
+    @Spy
+    private ConversionStreamWriters streamWriters = new ConversionStreamWriters(new ObjectMapper().findAndRegisterModules());
+
     @InjectMocks
     private ForeignExchangeController controller;
 
@@ -59,16 +72,26 @@ class ForeignExchangeControllerTest {
 
     @Test
     void getExchangeRateSuccess() {
-        when(exchangeRateService.getExchangeRate("USD", "EUR")).thenReturn(0.85);
+        when(exchangeRateService.getRateQuote("USD", "EUR")).thenReturn(new RateQuote(0.85, false));
         var response = controller.getExchangeRate("USD", "EUR");
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(0.85, response.getBody());
+        assertEquals("false", response.getHeaders().getFirst("X-Rate-Stale"));
+    }
+
+    @Test
+    void getExchangeRateStale() {
+        when(exchangeRateService.getRateQuote("USD", "EUR")).thenReturn(new RateQuote(0.85, true));
+        var response = controller.getExchangeRate("USD", "EUR");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("true", response.getHeaders().getFirst("X-Rate-Stale"));
     }
 
     @Test
     void getExchangeRateInvalidCurrency() {
-        when(exchangeRateService.getExchangeRate("INVALID", "EUR"))
+        when(exchangeRateService.getRateQuote("INVALID", "EUR"))
             .thenThrow(new IllegalArgumentException("Invalid currency code"));
 
         var exception = assertThrows(ResponseStatusException.class,
@@ -130,6 +153,18 @@ class ForeignExchangeControllerTest {
         assertEquals(mockResponse, response.getBody());
     }
 
+    @Test
+    void getConversionHistoryAfterInvalidCursor() {
+        when(conversionService.getConversionHistoryAfter("bad", 10))
+            .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        var exception = assertThrows(ResponseStatusException.class,
+            () -> controller.getConversionHistoryAfter("bad", 10));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("Invalid cursor", exception.getReason());
+    }
+
     @Test
     void getConversionHistoryBadRequestNullParameters() {
         var exception = assertThrows(ResponseStatusException.class,
@@ -194,4 +229,112 @@ class ForeignExchangeControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
         assertEquals("File is empty", exception.getReason());
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamBulkConvertCurrencyWritesNdjson() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+            "file",
+            "test.csv",
+            MediaType.TEXT_PLAIN_VALUE,
+            "test content".getBytes()
+        );
+        doAnswer(invocation -> {
+            BulkConversionListener listener = invocation.getArgument(1);
+            listener.onFailure(1, "Invalid amount");
+            listener.onComplete(1, 0, 1);
+            return null;
+        }).when(conversionService).streamBulkConversions(any(), any());
+
+        var response = controller.streamBulkConvertCurrency(file, "ndjson");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals("{\"rowNumber\":1,\"errorMessage\":\"Invalid amount\"}\n" +
+            "{\"processedCount\":1,\"successfulCount\":0,\"failedCount\":1}\n", out.toString());
+    }
+
+    @Test
+    void streamBulkConvertCurrencyUnsupportedFormat() {
+        MockMultipartFile file = new MockMultipartFile(
+            "file",
+            "test.csv",
+            MediaType.TEXT_PLAIN_VALUE,
+            "test content".getBytes()
+        );
+
+        var exception = assertThrows(ResponseStatusException.class,
+            () -> controller.streamBulkConvertCurrency(file, "xml"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(conversionService);
+    }
+
+    @Test
+    void exportConversionHistoryStreamsCsvAttachment() throws IOException {
+        ConversionResponse conversion = new ConversionResponse();
+        conversion.setTransactionId("tx-1");
+        conversion.setSourceCurrency("USD");
+        conversion.setTargetCurrency("EUR");
+        conversion.setSourceAmount(BigDecimal.valueOf(100));
+        conversion.setConvertedAmount(new BigDecimal("85.00"));
+        conversion.setExchangeRate(0.85);
+        conversion.setConversionDate(LocalDateTime.of(2024, 3, 21, 14, 30));
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        doAnswer(invocation -> {
+            invocation.<Consumer<ConversionResponse>>getArgument(2).accept(conversion);
+            return 1L;
+        }).when(conversionService).exportConversions(eq(from), eq(to), any());
+
+        var response = controller.exportConversionHistory(from, to, "csv");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("attachment; filename=\"conversions-2024-03-01-2024-03-31.csv\"",
+            response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertTrue(out.toString().endsWith("\r\ntx-1,USD,EUR,100,85.00,0.85,false,2024-03-21T14:30\r\n"));
+    }
+
+    @Test
+    void exportConversionHistoryReversedRange() {
+        var exception = assertThrows(ResponseStatusException.class,
+            () -> controller.exportConversionHistory(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1), "csv"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(conversionService);
+    }
+
+    @Test
+    void getConversionAnalyticsInvalidTop() {
+        when(conversionService.getAnalytics(any(), eq(0)))
+            .thenThrow(new IllegalArgumentException("Number of top pairs must not be less than one"));
+
+        var exception = assertThrows(ResponseStatusException.class,
+            () -> controller.getConversionAnalytics(LocalDate.of(2024, 3, 21), 0));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void getExchangeRateAsOfNotRecorded() {
+        Instant at = Instant.parse("2024-03-21T10:15:00Z");
+        when(exchangeRateService.getRateAsOf("USD", "EUR", at)).thenReturn(null);
+
+        var exception = assertThrows(ResponseStatusException.class,
+            () -> controller.getExchangeRateAsOf("USD", "EUR", at));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    void getExchangeRateCandlesInvalidInterval() {
+        var exception = assertThrows(ResponseStatusException.class, () -> controller.getExchangeRateCandles(
+            "USD", "EUR", Instant.parse("2024-03-21T00:00:00Z"), Instant.parse("2024-03-22T00:00:00Z"), "hourly"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(exchangeRateService);
+    }
+}
@@ -0,0 +1,195 @@
+package com.exchange.forex.history;
+
+import com.exchange.forex.config.HistoryProperties;
+import com.exchange.forex.dto.response.ConversionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionHistoryStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private HistoryProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HistoryProperties();
+        properties.setBucketDuration(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void findsConversionsByIdAndDate() {
+        ConversionHistoryStore store = store();
+        store.add(conversion("tx-1", LocalDateTime.of(2024, 3, 21, 12, 0)));
+        store.add(conversion("tx-2", LocalDateTime.of(2024, 3, 22, 0, 5)));
+
+        assertEquals("tx-1", store.get("tx-1").getTransactionId());
+        assertNull(store.get("unknown"));
+        assertEquals(1, store.findByDate(LocalDate.of(2024, 3, 22), 0, 10).totalElements());
+        assertEquals(0, store.findByDate(LocalDate.of(2024, 3, 23), 0, 10).totalElements());
+    }
+
+    @Test
+    void pagesDayInConversionTimeOrder() {
+        ConversionHistoryStore store = store();
+        LocalDateTime noon = LocalDateTime.of(2024, 3, 21, 12, 0);
+        store.add(conversion("tx-c", noon.plusSeconds(2)));
+        store.add(conversion("tx-b", noon));
+        store.add(conversion("tx-a", noon));
+        store.add(conversion("tx-d", noon.plusSeconds(1)));
+        store.add(conversion("tx-other-day", noon.plusDays(1)));
+
+        HistoryPage first = store.findByDate(LocalDate.of(2024, 3, 21), 0, 3);
+        HistoryPage second = store.findByDate(LocalDate.of(2024, 3, 21), 3, 3);
+
+        assertEquals(4, first.totalElements());
+        assertEquals(List.of("tx-a", "tx-b", "tx-d"), first.content().stream().map(ConversionResponse::getTransactionId).toList());
+        assertEquals(List.of("tx-c"), second.content().stream().map(ConversionResponse::getTransactionId).toList());
+    }
+
+    @Test
+    void continuesAfterCursorRegardlessOfNewConversions() {
+        ConversionHistoryStore store = store();
+        LocalDateTime noon = LocalDateTime.of(2024, 3, 21, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            store.add(conversion("tx-" + i, noon.plusSeconds(i)));
+        }
+
+        HistoryPage first = store.findByDate(LocalDate.of(2024, 3, 21), 0, 2);
+        store.add(conversion("tx-early", noon.minusSeconds(1)));
+        HistoryPage second = store.findAfter(HistoryCursor.decode(first.nextCursor().encode()), 2);
+        HistoryPage last = store.findAfter(second.nextCursor(), 2);
+
+        assertEquals(List.of("tx-2", "tx-3"), second.content().stream().map(ConversionResponse::getTransactionId).toList());
+        assertEquals(List.of("tx-4"), last.content().stream().map(ConversionResponse::getTransactionId).toList());
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode("%%%"));
+    }
+
+    @Test
+    void evictsWholeBucketsOlderThanMaxAge() {
+        properties.setMaxAge(Duration.ofMinutes(10));
+        ConversionHistoryStore store = store();
+        store.add(conversion("tx-1", LocalDateTime.now()));
+        store.add(conversion("tx-2", LocalDateTime.now()));
+
+        clock.advance(Duration.ofMinutes(5));
+        store.add(conversion("tx-3", LocalDateTime.now()));
+        assertEquals(3, store.getStats().entries());
+
+        clock.advance(Duration.ofMinutes(6));
+        store.evict();
+
+        HistoryStats stats = store.getStats();
+        assertEquals(1, stats.entries());
+        assertEquals(1, stats.buckets());
+        assertEquals(2, stats.evictedByAge());
+        assertNull(store.get("tx-1"));
+        assertNotNull(store.get("tx-3"));
+        assertEquals(1, store.findByDate(LocalDate.now(), 0, 10).totalElements());
+    }
+
+    @Test
+    void evictsOldestConversionsOverEntryLimit() {
+        properties.setMaxEntries(3);
+        ConversionHistoryStore store = store();
+        for (int i = 1; i <= 5; i++) {
+            store.add(conversion("tx-" + i, LocalDateTime.now()));
+            clock.advance(Duration.ofSeconds(30));
+        }
+
+        HistoryStats stats = store.getStats();
+        assertEquals(3, stats.entries());
+        assertEquals(2, stats.evictedByEntries());
+        assertNull(store.get("tx-1"));
+        assertNull(store.get("tx-2"));
+        assertNotNull(store.get("tx-3"));
+    }
+
+    @Test
+    void answersPartlyEvictedDayFromStoreWithoutPersistence() {
+        properties.setMaxEntries(3);
+        ConversionHistoryStore store = store();
+        NoHistoryPersistence persistence = new NoHistoryPersistence(store);
+        LocalDateTime noon = LocalDateTime.of(2024, 3, 21, 12, 0);
+        for (int i = 1; i <= 5; i++) {
+            store.add(conversion("tx-" + i, noon.plusSeconds(i)));
+        }
+
+        LocalDate day = noon.toLocalDate();
+        assertFalse(store.isComplete(day));
+        HistoryPage page = persistence.findByDate(day, 0, 10);
+        assertEquals(List.of("tx-3", "tx-4", "tx-5"), page.content().stream().map(ConversionResponse::getTransactionId).toList());
+        assertEquals(List.of("tx-5"), persistence.findAfter(new HistoryCursor(noon.plusSeconds(4), "tx-4"), 10)
+            .content().stream().map(ConversionResponse::getTransactionId).toList());
+        assertEquals(3, persistence.forEachOnDate(day, conversion -> { }));
+        assertNotNull(persistence.findById("tx-3"));
+    }
+
+    @Test
+    void evictsOldestConversionsOverByteLimit() {
+        properties.setMaxBytes(DataSize.ofBytes(2_000));
+        ConversionHistoryStore store = store();
+        for (int i = 1; i <= 10; i++) {
+            store.add(conversion("tx-" + i, LocalDateTime.now()));
+        }
+
+        HistoryStats stats = store.getStats();
+        assertTrue(stats.estimatedBytes() <= 2_000);
+        assertEquals(10, stats.entries() + stats.evictedByBytes());
+        assertNotNull(store.get("tx-10"));
+    }
+
+    private ConversionHistoryStore store() {
+        ConversionHistoryStore store = new ConversionHistoryStore(properties);
+        ReflectionTestUtils.setField(store, "clock", clock);
+        return store;
+    }
+
+    private static ConversionResponse conversion(String transactionId, LocalDateTime date) {
+        ConversionResponse conversion = new ConversionResponse();
+        conversion.setTransactionId(transactionId);
+        conversion.setConversionDate(date);
+        return conversion;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-03-21T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
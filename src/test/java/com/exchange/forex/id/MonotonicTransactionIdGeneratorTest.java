@@ -0,0 +1,102 @@
+package com.exchange.forex.id;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonotonicTransactionIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-21T14:30:00Z");
+
+    @Test
+    void idsSortInGenerationOrderWithinAndAcrossMilliseconds() {
+        MonotonicTransactionIdGenerator generator = generator(7, NOW);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(generator.nextId());
+        }
+        ReflectionTestUtils.setField(generator, "clock", Clock.fixed(NOW.plusMillis(1), ZoneOffset.UTC));
+        ids.add(generator.nextId());
+
+        assertEquals(MonotonicTransactionIdGenerator.LENGTH, ids.get(0).length());
+        assertTrue(ids.get(0).matches("[0-9A-HJKMNP-TV-Z]+"));
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+    }
+
+    @Test
+    void staysMonotonicWhenClockStepsBack() {
+        MonotonicTransactionIdGenerator generator = generator(7, NOW);
+        String before = generator.nextId();
+        ReflectionTestUtils.setField(generator, "clock", Clock.fixed(NOW.minusSeconds(60), ZoneOffset.UTC));
+
+        assertTrue(generator.nextId().compareTo(before) > 0);
+    }
+
+    @Test
+    void issueTimeIsTheTimestampOfTheId() {
+        MonotonicTransactionIdGenerator generator = generator(7, NOW);
+        TransactionId first = generator.next();
+        ReflectionTestUtils.setField(generator, "clock", Clock.fixed(NOW.minusSeconds(60), ZoneOffset.UTC));
+        TransactionId second = generator.next();
+
+        assertEquals(NOW, first.issuedAt());
+        assertEquals(NOW, second.issuedAt());
+        assertTrue(second.value().compareTo(first.value()) > 0);
+    }
+
+    @Test
+    void laterMillisecondSortsAfterEveryNode() {
+        String early = generator(65535, NOW).nextId();
+        String late = generator(0, NOW.plusMillis(1)).nextId();
+
+        assertTrue(late.compareTo(early) > 0);
+    }
+
+    @Test
+    void nodeIdMustFitSixteenBits() {
+        assertThrows(IllegalArgumentException.class, () -> new MonotonicTransactionIdGenerator(65536));
+        int random = new MonotonicTransactionIdGenerator(-1).getNodeId();
+        assertTrue(random >= 0 && random <= 65535);
+    }
+
+    @Test
+    void concurrentIdsAreUnique() throws InterruptedException {
+        MonotonicTransactionIdGenerator generator = new MonotonicTransactionIdGenerator(3);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            Thread.ofPlatform().start(() -> {
+                List<String> local = new ArrayList<>();
+                for (int i = 0; i < 50_000; i++) {
+                    local.add(generator.nextId());
+                }
+                assertEquals(local.stream().sorted().toList(), local);
+                ids.addAll(local);
+                done.countDown();
+            });
+        }
+        done.await();
+
+        assertEquals(200_000, ids.size());
+    }
+
+    private static MonotonicTransactionIdGenerator generator(int nodeId, Instant now) {
+        MonotonicTransactionIdGenerator generator = new MonotonicTransactionIdGenerator(nodeId);
+        ReflectionTestUtils.setField(generator, "clock", Clock.fixed(now, ZoneOffset.UTC));
+        return generator;
+    }
+}
@@ -0,0 +1,129 @@
+package com.exchange.forex.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(50, 4, 10, Duration.ofSeconds(30), clock);
+
+    private void call(boolean succeed) {
+        assertTrue(circuitBreaker.tryAcquire());
+        if (succeed) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        call(false);
+        call(false);
+        call(false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void staysClosedBelowFailureRate() {
+        call(true);
+        call(true);
+        call(false);
+        call(true);
+        call(false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void opensAtFailureRateAndRejectsCalls() {
+        call(true);
+        call(false);
+        call(true);
+        call(false);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void failureRateOnlyCountsWindow() {
+        CircuitBreaker windowed = new CircuitBreaker(50, 4, 4, Duration.ofSeconds(30), clock);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(windowed.tryAcquire());
+            windowed.onSuccess();
+        }
+        assertTrue(windowed.tryAcquire());
+        windowed.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, windowed.getState());
+
+        assertTrue(windowed.tryAcquire());
+        windowed.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, windowed.getState());
+    }
+
+    @Test
+    void letsOneTrialCallThroughAfterOpenDuration() {
+        openCircuit();
+
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void reopensWhenTrialCallFails() {
+        openCircuit();
+
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            call(false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-03-21T14:30:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.exchange.forex.integration;
+
+import com.exchange.forex.model.RateTable;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatesResponseParserTest {
+
+    private final RatesResponseParser parser = new RatesResponseParser(new ObjectMapper());
+
+    private RateTable parse(String json) throws IOException {
+        return parser.parse(new ByteArrayInputStream(json.getBytes()));
+    }
+
+    @Test
+    void parseReadsBaseAndRatesAndSkipsOtherFields() throws IOException {
+        RateTable table = parse("{\"provider\":\"test\",\"nested\":{\"rates\":{\"XXX\":1}},\"base\":\"USD\"," +
+            "\"rates\":{\"USD\":1,\"EUR\":0.92,\"JPY\":151.5,\"usd\":2},\"list\":[1,2,3]}");
+
+        assertEquals("USD", table.getBaseCurrency());
+        assertEquals(3, table.size());
+        assertEquals(1.0, table.get("USD"));
+        assertEquals(0.92, table.get("EUR"));
+        assertEquals(151.5, table.get("JPY"));
+        assertTrue(Double.isNaN(table.get("XXX")));
+    }
+
+    @Test
+    void parseReadsRatesExactly() throws IOException {
+        String[] values = {"0.853421", "1", "0.000012345678901", "123456789.123456", "1.23456789012345678",
+            "1e-7", "-0.5", "4200000000000000000000"};
+        StringBuilder json = new StringBuilder("{\"rates\":{");
+        for (int i = 0; i < values.length; i++) {
+            json.append(i == 0 ? "" : ",").append("\"A").append((char) ('A' + i)).append("X\":").append(values[i]);
+        }
+        RateTable table = parse(json.append("}}").toString());
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.parseDouble(values[i]), table.get("A" + (char) ('A' + i) + "X"), values[i]);
+        }
+    }
+
+    @Test
+    void parseWithoutRatesReturnsNull() throws IOException {
+        assertNull(parse("{\"base\":\"USD\"}"));
+    }
+
+    @Test
+    void parseRejectsInvalidRates() {
+        assertThrows(JsonParseException.class, () -> parse("{\"rates\":\"INVALID\"}"));
+        assertThrows(JsonParseException.class, () -> parse("{\"rates\":{\"EUR\":\"0.92\"}}"));
+        assertThrows(JsonParseException.class, () -> parse("[]"));
+    }
+}
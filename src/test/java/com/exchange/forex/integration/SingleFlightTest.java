@@ -0,0 +1,139 @@
+package com.exchange.forex.integration;
+
+import com.exchange.forex.exception.ExternalServiceException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void executeCoalescesConcurrentCalls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        List<Future<String>> results = runConcurrently(() -> singleFlight.execute("USD", MAX_WAIT, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "rates";
+        }), release);
+
+        for (Future<String> result : results) {
+            assertEquals("rates", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.getIssuedCount());
+        assertEquals(CALLERS - 1, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void executePropagatesFailureToAllWaiters() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> singleFlight.execute("USD", MAX_WAIT, () -> {
+            await(release);
+            throw new ExternalServiceException("API Error");
+        }), release);
+
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ExternalServiceException.class, e.getCause());
+            assertEquals("API Error", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void executeReleasesWaitersWhenLoaderThrowsError() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> singleFlight.execute("USD", MAX_WAIT, () -> {
+            await(release);
+            throw new LinkageError("boom");
+        }), release);
+
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertEquals("boom", e.getCause().getMessage());
+        }
+        assertEquals("rates", singleFlight.execute("USD", MAX_WAIT, () -> "rates"));
+    }
+
+    @Test
+    void executeRunsAgainAfterCompletion() throws ExternalServiceException {
+        assertEquals("first", singleFlight.execute("USD", MAX_WAIT, () -> "first"));
+        assertEquals("second", singleFlight.execute("USD", MAX_WAIT, () -> "second"));
+        assertEquals(2, singleFlight.getIssuedCount());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void executeBoundsWaitOfCoalescedCalls() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> singleFlight.execute("USD", MAX_WAIT, () -> {
+                started.countDown();
+                await(release);
+                return "rates";
+            }));
+            started.await();
+
+            assertThrows(ExternalServiceException.class,
+                () -> singleFlight.execute("USD", Duration.ofMillis(10), () -> "unused"));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private List<Future<String>> runConcurrently(InterruptibleCall call, CountDownLatch release) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch ready = new CountDownLatch(CALLERS);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    return call.call();
+                }));
+            }
+            ready.await();
+            while (singleFlight.getIssuedCount() + singleFlight.getCoalescedCount() < CALLERS) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws ExternalServiceException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new ExternalServiceException("Interrupted");
+        }
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleCall {
+        String call() throws Exception;
+    }
+}
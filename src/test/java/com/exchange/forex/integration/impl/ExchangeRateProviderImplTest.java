@@ -1,24 +1,41 @@
 package com.exchange.forex.integration.impl;
 
+import com.exchange.forex.exception.CurrencyNotFoundException;
 import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.integration.CircuitBreaker;
+import com.exchange.forex.integration.RatesResponseParser;
+import com.exchange.forex.model.RateTable;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ExchangeRateProviderImplTest {
@@ -26,8 +43,14 @@ class ExchangeRateProviderImplTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @Mock
-    private ObjectMapper objectMapper;
+    @Spy
+    private RatesResponseParser ratesResponseParser = new RatesResponseParser(new ObjectMapper());
+
+    @Spy
+    private CircuitBreaker circuitBreaker = new CircuitBreaker(50, 2, 10, Duration.ofSeconds(30), Clock.systemUTC());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private ExchangeRateProviderService exchangeRateProviderService;
@@ -44,23 +67,60 @@ class ExchangeRateProviderImplTest {
         ReflectionTestUtils.setField(exchangeRateProviderService, "apiKey", API_KEY);
     }
 
+    private void respondWith(String body) {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+            .thenAnswer(invocation -> {
+                ResponseExtractor<?> extractor = invocation.getArgument(3);
+                try {
+                    return extractor.extractData(new MockClientHttpResponse(body.getBytes(), HttpStatus.OK));
+                } catch (IOException e) {
+                    throw new ResourceAccessException("I/O error: " + e.getMessage(), e);
+                }
+            });
+    }
+
     @Test
     void getExchangeRateSuccess() throws ExternalServiceException {
-        Map<String, Object> response = new HashMap<>();
-        Map<String, Double> rates = new HashMap<>();
-        rates.put(TARGET_CURRENCY, EXCHANGE_RATE);
-        response.put("rates", rates);
-
-        String expectedUrl = String.format("%s/latest/%s?apikey=%s", API_URL, SOURCE_CURRENCY, API_KEY);
-        when(restTemplate.getForObject(expectedUrl, Map.class)).thenReturn(response);
+        URI expectedUri = URI.create(String.format("%s/latest/%s?apikey=%s", API_URL, SOURCE_CURRENCY, API_KEY));
+        when(restTemplate.execute(eq(expectedUri), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+            .thenAnswer(invocation -> invocation.<ResponseExtractor<?>>getArgument(3).extractData(
+                new MockClientHttpResponse("{\"rates\":{\"EUR\":0.85}}".getBytes(), HttpStatus.OK)));
 
         double rate = exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY);
         assertEquals(EXCHANGE_RATE, rate);
     }
 
+    @Test
+    void getRatesReturnsWholeTable() throws ExternalServiceException {
+        respondWith("{\"provider\":\"test\",\"base\":\"USD\",\"date\":\"2024-03-21\"," +
+            "\"rates\":{\"USD\":1,\"EUR\":0.85,\"JPY\":150},\"time_last_updated\":1711029601}");
+
+        RateTable result = exchangeRateProviderService.getRates(SOURCE_CURRENCY);
+        assertEquals(SOURCE_CURRENCY, result.getBaseCurrency());
+        assertEquals(3, result.size());
+        assertEquals(EXCHANGE_RATE, result.get(TARGET_CURRENCY));
+        assertEquals(150.0, result.get("JPY"));
+        assertTrue(Double.isNaN(result.get("GBP")));
+    }
+
+    @Test
+    void getRatesTagsRequestsWithIsoCodesOnly() throws ExternalServiceException {
+        respondWith("{\"rates\":{\"EUR\":0.85}}");
+
+        exchangeRateProviderService.getRates(SOURCE_CURRENCY);
+        exchangeRateProviderService.getRates(SOURCE_CURRENCY);
+        exchangeRateProviderService.getRates("ABC");
+        exchangeRateProviderService.getRates("QQQ");
+
+        assertEquals(2, meterRegistry.get("forex.provider.requests").tags("base", SOURCE_CURRENCY, "outcome", "success").timer().count());
+        assertEquals(2, meterRegistry.get("forex.provider.requests").tags("base", "other", "outcome", "success").timer().count());
+        assertEquals(0, meterRegistry.get("forex.provider.requests").tags("base", "other", "outcome", "failure").timer().count());
+        assertEquals(4, meterRegistry.find("forex.provider.requests").timers().size());
+    }
+
     @Test
     void getExchangeRateApiError() {
-        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
             .thenThrow(new RestClientException("API Error"));
 
         assertThrows(ExternalServiceException.class,
@@ -69,7 +129,8 @@ class ExchangeRateProviderImplTest {
 
     @Test
     void getExchangeRateNullResponse() {
-        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(null);
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+            .thenReturn(null);
 
         assertThrows(ExternalServiceException.class,
             () -> exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY));
@@ -77,8 +138,7 @@ class ExchangeRateProviderImplTest {
 
     @Test
     void getExchangeRateMissingRates() {
-        Map<String, Object> response = new HashMap<>();
-        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(response);
+        respondWith("{\"base\":\"USD\"}");
 
         assertThrows(ExternalServiceException.class,
             () -> exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY));
@@ -86,12 +146,71 @@ class ExchangeRateProviderImplTest {
 
     @Test
     void getExchangeRateInvalidRatesFormat() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("rates", "INVALID");
+        respondWith("{\"rates\":\"INVALID\"}");
 
-        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(response);
+        ExternalServiceException exception = assertThrows(ExternalServiceException.class,
+            () -> exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY));
+        assertEquals("Error parsing API response: Invalid data format", exception.getMessage());
+    }
+
+    @Test
+    void getExchangeRateNonNumericRate() {
+        respondWith("{\"rates\":{\"EUR\":\"0.85\"}}");
 
         assertThrows(ExternalServiceException.class,
             () -> exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRatesFailsFastWhenCircuitIsOpen() {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+            .thenThrow(new RestClientException("API Error"));
+        assertThrows(ExternalServiceException.class, () -> exchangeRateProviderService.getRates(SOURCE_CURRENCY));
+        assertThrows(ExternalServiceException.class, () -> exchangeRateProviderService.getRates(SOURCE_CURRENCY));
+
+        ExternalServiceException exception = assertThrows(ExternalServiceException.class,
+            () -> exchangeRateProviderService.getRates(SOURCE_CURRENCY));
+
+        assertEquals("Exchange Rate API is unavailable: circuit breaker is open", exception.getMessage());
+        verify(restTemplate, times(2)).execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class));
+    }
+
+    @Test
+    void getRatesRejectsInvalidCodeWithoutRequest() {
+        assertThrows(CurrencyNotFoundException.class, () -> exchangeRateProviderService.getRates("U%D"));
+        assertThrows(CurrencyNotFoundException.class, () -> exchangeRateProviderService.getRates("usd"));
+
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void getRatesClientErrorsDoNotOpenCircuit() throws ExternalServiceException {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+            .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+        for (int i = 0; i < 5; i++) {
+            assertThrows(CurrencyNotFoundException.class, () -> exchangeRateProviderService.getRates("XYZ"));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void getRatesRateLimitingCountsAgainstCircuit() {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+            .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+        assertThrows(ExternalServiceException.class, () -> exchangeRateProviderService.getRates(SOURCE_CURRENCY));
+        assertThrows(ExternalServiceException.class, () -> exchangeRateProviderService.getRates(SOURCE_CURRENCY));
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void getRatesServerErrorsCountAgainstCircuit() {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+            .thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Unavailable", null, null, null));
+        assertThrows(ExternalServiceException.class, () -> exchangeRateProviderService.getRates(SOURCE_CURRENCY));
+        assertThrows(ExternalServiceException.class, () -> exchangeRateProviderService.getRates(SOURCE_CURRENCY));
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,106 @@
+package com.exchange.forex.journal;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionJournalTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 21, 12, 0, 0, 123_456_789);
+    private static final long SEGMENT_SIZE = 4L * JournalRecord.SIZE;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void replaysAppendedConversionsAcrossSegmentsAfterReopen() throws IOException {
+        try (ConversionJournal journal = ConversionJournal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(conversion("tx-" + i, i));
+            }
+            assertEquals(3, journal.getSegmentNumber());
+        }
+
+        List<ConversionResponse> replayed = new ArrayList<>();
+        try (ConversionJournal journal = ConversionJournal.open(directory, SEGMENT_SIZE)) {
+            assertEquals(10, journal.replay(replayed::add));
+            journal.append(conversion("tx-10", 10));
+            assertEquals(11, journal.replay(conversion -> { }));
+        }
+
+        assertEquals(conversion("tx-0", 0), replayed.get(0));
+        assertEquals(conversion("tx-9", 9), replayed.get(9));
+        assertEquals(3, segmentCount());
+    }
+
+    @Test
+    void stopsAtTornRecordAndOverwritesIt() throws IOException {
+        try (ConversionJournal journal = ConversionJournal.open(directory, SEGMENT_SIZE)) {
+            journal.append(conversion("tx-0", 0));
+            journal.append(conversion("tx-1", 1));
+        }
+        corruptByte(directory.resolve("000000000001.journal"), JournalRecord.SIZE + 40);
+
+        try (ConversionJournal journal = ConversionJournal.open(directory, SEGMENT_SIZE)) {
+            assertEquals(1, journal.replay(conversion -> { }));
+            journal.append(conversion("tx-2", 2));
+
+            List<ConversionResponse> replayed = new ArrayList<>();
+            journal.replay(replayed::add);
+            assertEquals(List.of("tx-0", "tx-2"), replayed.stream().map(ConversionResponse::getTransactionId).toList());
+        }
+    }
+
+    @Test
+    void rejectsConversionsThatDoNotFitTheRecord() throws IOException {
+        try (ConversionJournal journal = ConversionJournal.open(directory, SEGMENT_SIZE)) {
+            ConversionResponse tooLarge = conversion("tx-0", 0);
+            tooLarge.setSourceAmount(new BigDecimal("123456789012345678901234567890"));
+
+            assertThrows(IllegalArgumentException.class, () -> journal.append(tooLarge));
+            assertEquals(0, journal.replay(conversion -> { }));
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static void corruptByte(Path segment, int offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, offset);
+            value.put(0, (byte) (value.get(0) ^ 0x7F)).rewind();
+            channel.write(value, offset);
+        }
+    }
+
+    private static ConversionResponse conversion(String transactionId, int second) {
+        ConversionResponse conversion = new ConversionResponse();
+        conversion.setTransactionId(transactionId);
+        conversion.setSourceCurrency("USD");
+        conversion.setTargetCurrency("EUR");
+        conversion.setSourceAmount(new BigDecimal("100.50"));
+        conversion.setConvertedAmount(new BigDecimal("85.43"));
+        conversion.setExchangeRate(0.85);
+        conversion.setStaleRate(second % 2 == 0);
+        conversion.setConversionDate(NOON.plusSeconds(second));
+        return conversion;
+    }
+}
@@ -0,0 +1,132 @@
+package com.exchange.forex.journal;
+
+import com.exchange.forex.config.HistoryProperties;
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.history.ConversionHistoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalHistoryPersistenceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 21, 12, 0);
+
+    @TempDir
+    private Path directory;
+
+    private HistoryProperties properties;
+    private JournalHistoryPersistence persistence;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new HistoryProperties();
+        properties.getPersistence().getJournal().setDirectory(directory);
+        properties.getPersistence().getJournal().setSegmentSize(DataSize.ofBytes(4L * JournalRecord.SIZE));
+        persistence = new JournalHistoryPersistence(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        persistence.close();
+    }
+
+    @Test
+    void readsOnlySegmentsThatCanHoldTheId() throws IOException {
+        // Segment 1 holds the 20th, segment 2 the 21st and segment 3 the 22nd.
+        for (int i = 0; i < 12; i++) {
+            persistence.append(conversion(String.format("tx-%02d", i), NOON.plusDays(i / 4 - 1)));
+        }
+        persistence.close();
+        persistence = new JournalHistoryPersistence(properties);
+        persistence.restore(new ConversionHistoryStore(properties));
+        long afterRestore = persistence.getSegmentsRead();
+
+        assertNull(persistence.findById("tx-99"));
+        assertEquals(afterRestore, persistence.getSegmentsRead());
+
+        assertEquals("tx-05", persistence.findById("tx-05").getTransactionId());
+        assertEquals(afterRestore + 1, persistence.getSegmentsRead());
+
+        assertEquals(4, persistence.findByDate(LocalDate.of(2024, 3, 22), 0, 10).totalElements());
+        assertEquals(afterRestore + 2, persistence.getSegmentsRead());
+    }
+
+    @Test
+    void findsRandomIdsWithoutScanningSegments() throws IOException {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(UUID.randomUUID().toString());
+            persistence.append(conversion(ids.get(i), NOON.plusDays(i / 4 - 1)));
+        }
+        persistence.close();
+        persistence = new JournalHistoryPersistence(properties);
+
+        // Before the replay only the sealed segments up to the one holding the id are read.
+        assertEquals(ids.get(1), persistence.findById(ids.get(1)).getTransactionId());
+        assertEquals(1, persistence.getSegmentsRead());
+
+        persistence.restore(new ConversionHistoryStore(properties));
+        long afterRestore = persistence.getSegmentsRead();
+
+        assertNull(persistence.findById(UUID.randomUUID().toString()));
+        assertEquals(afterRestore, persistence.getSegmentsRead());
+        assertEquals(ids.get(6), persistence.findById(ids.get(6)).getTransactionId());
+        assertEquals(ids.get(11), persistence.findById(ids.get(11)).getTransactionId());
+        assertEquals(afterRestore + 2, persistence.getSegmentsRead());
+    }
+
+    @Test
+    void deletesFullSegmentsOlderThanRetention() throws IOException {
+        properties.getPersistence().getJournal().setRetention(Duration.ofDays(1));
+        persistence.close();
+        persistence = new JournalHistoryPersistence(properties);
+        ReflectionTestUtils.setField(persistence, "clock",
+            Clock.fixed(NOON.plusDays(1).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+        for (int i = 0; i < 12; i++) {
+            persistence.append(conversion(String.format("tx-%02d", i), NOON.plusDays(i / 4 - 1)));
+        }
+
+        persistence.deleteExpiredSegments();
+
+        assertEquals(2, segmentCount());
+        assertNull(persistence.findById("tx-01"));
+        assertEquals(4, persistence.findByDate(LocalDate.of(2024, 3, 21), 0, 10).totalElements());
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static ConversionResponse conversion(String transactionId, LocalDateTime date) {
+        ConversionResponse conversion = new ConversionResponse();
+        conversion.setTransactionId(transactionId);
+        conversion.setSourceCurrency("USD");
+        conversion.setTargetCurrency("EUR");
+        conversion.setSourceAmount(new BigDecimal("100.5"));
+        conversion.setConvertedAmount(new BigDecimal("85.43"));
+        conversion.setExchangeRate(0.85);
+        conversion.setConversionDate(date);
+        return conversion;
+    }
+}
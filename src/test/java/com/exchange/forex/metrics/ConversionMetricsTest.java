@@ -0,0 +1,35 @@
+package com.exchange.forex.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConversionMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConversionMetrics metrics = new ConversionMetrics(registry);
+
+    @Test
+    void timesConversionsByOutcome() {
+        metrics.conversionSucceeded(metrics.startConversion(), false);
+        metrics.conversionSucceeded(metrics.startConversion(), true);
+        metrics.conversionFailed(metrics.startConversion());
+
+        assertEquals(2, registry.get("forex.conversions").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("forex.conversions").tag("outcome", "failure").timer().count());
+        assertEquals(1, registry.get("forex.conversions.stale.rate").counter().count());
+    }
+
+    @Test
+    void countsBulkRowsAndRecordsThroughput() {
+        metrics.bulkJobRowProcessed(false);
+        metrics.bulkJobRowProcessed(false);
+        metrics.bulkJobRowProcessed(true);
+        metrics.bulkJobFinished(1500);
+
+        assertEquals(2, registry.get("forex.bulk.jobs.rows").tag("outcome", "success").counter().count());
+        assertEquals(1, registry.get("forex.bulk.jobs.rows").tag("outcome", "failure").counter().count());
+        assertEquals(1500, registry.get("forex.bulk.jobs.throughput").summary().totalAmount());
+    }
+}
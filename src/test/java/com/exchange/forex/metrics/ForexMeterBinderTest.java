@@ -0,0 +1,106 @@
+package com.exchange.forex.metrics;
+
+import com.exchange.forex.cache.RateSnapshotCache;
+import com.exchange.forex.config.HistoryProperties;
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.history.ConversionHistoryStore;
+import com.exchange.forex.integration.CircuitBreaker;
+import com.exchange.forex.integration.impl.ExchangeRateProviderService;
+import com.exchange.forex.journal.JournalHistoryPersistence;
+import com.exchange.forex.model.BulkJobStatus;
+import com.exchange.forex.persistence.JpaHistoryPersistence;
+import com.exchange.forex.service.BulkConversionJobService;
+import com.exchange.forex.timeseries.RateHistoryStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ForexMeterBinderTest {
+
+    @Mock
+    private RateSnapshotCache rateSnapshotCache;
+
+    @Mock
+    private ExchangeRateProviderService exchangeRateProviderService;
+
+    @Mock
+    private BulkConversionJobService bulkConversionJobService;
+
+    @Mock
+    private RateHistoryStore rateHistoryStore;
+
+    @Mock
+    private ObjectProvider<JpaHistoryPersistence> jpaHistoryPersistence;
+
+    @Mock
+    private ObjectProvider<JournalHistoryPersistence> journalHistoryPersistence;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConversionHistoryStore historyStore = new ConversionHistoryStore(new HistoryProperties());
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(50, 2, 10, Duration.ofSeconds(30), Clock.systemUTC());
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        new ForexMeterBinder(historyStore, rateSnapshotCache, exchangeRateProviderService, circuitBreaker,
+            bulkConversionJobService, executor, rateHistoryStore, jpaHistoryPersistence, journalHistoryPersistence)
+            .bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void readsHistoryOccupancyOnScrape() {
+        ConversionResponse response = new ConversionResponse();
+        response.setTransactionId("tx-1");
+        response.setSourceCurrency("USD");
+        response.setTargetCurrency("EUR");
+        response.setSourceAmount(BigDecimal.ONE);
+        response.setConvertedAmount(BigDecimal.ONE);
+        response.setConversionDate(LocalDateTime.now());
+        historyStore.add(response);
+
+        assertEquals(1, registry.get("forex.history.entries").gauge().value());
+        assertEquals(0, registry.get("forex.history.evictions").tag("cause", "age").functionCounter().count());
+    }
+
+    @Test
+    void exposesCacheLookupsAndCircuitState() {
+        when(rateSnapshotCache.getHitCount()).thenReturn(7L);
+        when(rateSnapshotCache.getMissCount()).thenReturn(3L);
+
+        assertEquals(7, registry.get("forex.rates.cache.lookups").tag("result", "hit").functionCounter().count());
+        assertEquals(3, registry.get("forex.rates.cache.lookups").tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("forex.provider.circuit.state").tag("state", "closed").gauge().value());
+        assertEquals(0, registry.get("forex.provider.circuit.state").tag("state", "open").gauge().value());
+    }
+
+    @Test
+    void exposesBulkJobsByStatus() {
+        when(bulkConversionJobService.count(BulkJobStatus.RUNNING)).thenReturn(2L);
+
+        assertEquals(2, registry.get("forex.bulk.jobs").tag("status", "running").gauge().value());
+        assertEquals(0, registry.get("forex.bulk.jobs.queue.size").gauge().value());
+    }
+}
@@ -0,0 +1,62 @@
+package com.exchange.forex.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FixedPointTest {
+
+    @Test
+    void roundsRateToFixedScale() {
+        assertEquals(850_000_000_000L, FixedPoint.toRateUnits(0.85));
+        assertEquals(300_000_000_000L, FixedPoint.toRateUnits(0.1 + 0.2));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.toRateUnits(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.toRateUnits(-1));
+    }
+
+    @Test
+    void multipliesWithHalfUpRounding() {
+        assertEquals(8_500, FixedPoint.multiply(10_000, 2, FixedPoint.toRateUnits(0.85), 2));
+        assertEquals(1, FixedPoint.multiply(1, 0, FixedPoint.toRateUnits(0.5), 0));
+        assertEquals(0, FixedPoint.multiply(1, 0, FixedPoint.toRateUnits(0.49), 0));
+        assertEquals(15_050, FixedPoint.multiply(10_033, 2, FixedPoint.toRateUnits(150), 0));
+    }
+
+    @Test
+    void multipliesProductsBeyondSixtyFourBits() {
+        long amount = 9_000_000_000_000L;
+        long rate = FixedPoint.toRateUnits(151.123456);
+
+        assertEquals(BigDecimal.valueOf(amount, 2).multiply(BigDecimal.valueOf(rate, FixedPoint.RATE_SCALE))
+                .setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+            FixedPoint.multiply(amount, 2, rate, 2));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(Long.MAX_VALUE, 2, rate, 2));
+    }
+
+    @Test
+    void matchesBigDecimalArithmetic() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 10_000_000_000L), random.nextInt(0, 5));
+            double rate = random.nextDouble(0.00001, 50_000);
+            int resultScale = random.nextInt(0, 4);
+
+            BigDecimal expected = amount.multiply(BigDecimal.valueOf(FixedPoint.toRateUnits(rate), FixedPoint.RATE_SCALE))
+                .setScale(resultScale, RoundingMode.HALF_UP);
+            assertEquals(expected, FixedPoint.convert(amount, rate, resultScale), () -> amount + " x " + rate);
+        }
+    }
+
+    @Test
+    void fallsBackOutsideFixedPointRange() {
+        assertEquals(new BigDecimal("-85.00"), FixedPoint.convert(new BigDecimal("-100"), 0.85, 2));
+        assertEquals(new BigDecimal("85.00"), FixedPoint.convert(new BigDecimal("100.0000000000000001"), 0.85, 2));
+        assertEquals(new BigDecimal("2000000000.00"), FixedPoint.convert(BigDecimal.ONE, 2e9, 2));
+        assertEquals(new BigDecimal("8500.00"), FixedPoint.convert(new BigDecimal("1E+4"), 0.85, 2));
+    }
+}
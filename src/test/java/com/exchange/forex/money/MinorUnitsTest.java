@@ -0,0 +1,21 @@
+package com.exchange.forex.money;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MinorUnitsTest {
+
+    @Test
+    void usesIsoMinorUnits() {
+        assertEquals(2, MinorUnits.of("USD"));
+        assertEquals(0, MinorUnits.of("JPY"));
+        assertEquals(3, MinorUnits.of("KWD"));
+    }
+
+    @Test
+    void defaultsForUnknownCodesAndCodesWithoutMinorUnits() {
+        assertEquals(MinorUnits.DEFAULT_MINOR_UNITS, MinorUnits.of("XAU"));
+        assertEquals(MinorUnits.DEFAULT_MINOR_UNITS, MinorUnits.of("ZZZ"));
+    }
+}
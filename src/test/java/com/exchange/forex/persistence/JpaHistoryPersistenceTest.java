@@ -0,0 +1,144 @@
+package com.exchange.forex.persistence;
+
+import com.exchange.forex.config.HistoryProperties;
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.exchange.forex.history.HistoryPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaHistoryPersistenceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 21, 12, 0);
+
+    @Autowired
+    private ConversionRecordRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JpaHistoryPersistence persistence;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        HistoryProperties properties = new HistoryProperties();
+        properties.getPersistence().setBatchSize(2);
+        properties.getPersistence().setQueueCapacity(10);
+        persistence = new JpaHistoryPersistence(repository, jdbcTemplate, properties);
+    }
+
+    @Test
+    void writesQueuedConversionsInBatches() {
+        for (int i = 0; i < 5; i++) {
+            persistence.append(conversion("tx-" + i, NOON.plusSeconds(i)));
+        }
+        assertEquals(0, repository.count());
+
+        persistence.flush();
+
+        assertEquals(5, repository.count());
+        assertEquals(5, persistence.getWrittenCount());
+        ConversionResponse stored = persistence.findById("tx-3");
+        assertEquals(new BigDecimal("100.5"), stored.getSourceAmount());
+        assertEquals(new BigDecimal("85.43"), stored.getConvertedAmount());
+        assertEquals(NOON.plusSeconds(3), stored.getConversionDate());
+        assertEquals(NOON.plusSeconds(4), repository.findLatestConversionDate());
+    }
+
+    @Test
+    void dropsConversionsWhenQueueIsFull() {
+        for (int i = 0; i < 12; i++) {
+            persistence.append(conversion("tx-" + i, NOON));
+        }
+
+        assertEquals(2, persistence.getDroppedCount());
+    }
+
+    @Test
+    void pagesDayByDateAndCursor() {
+        for (int i = 0; i < 5; i++) {
+            persistence.append(conversion("tx-" + i, NOON.plusSeconds(i)));
+        }
+        persistence.append(conversion("tx-next-day", NOON.plusDays(1)));
+        persistence.flush();
+
+        HistoryPage first = persistence.findByDate(LocalDate.of(2024, 3, 21), 0, 2);
+        HistoryPage second = persistence.findAfter(first.nextCursor(), 2);
+        HistoryPage last = persistence.findByDate(LocalDate.of(2024, 3, 21), 4, 2);
+
+        assertEquals(5, first.totalElements());
+        assertEquals(List.of("tx-0", "tx-1"), ids(first));
+        assertEquals(List.of("tx-2", "tx-3"), ids(second));
+        assertEquals(List.of("tx-4"), ids(last));
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void streamsDayInConversionOrder() {
+        persistence.append(conversion("tx-b", NOON.plusSeconds(1)));
+        persistence.append(conversion("tx-a", NOON.plusSeconds(1)));
+        persistence.append(conversion("tx-c", NOON));
+        persistence.append(conversion("tx-next-day", NOON.plusDays(1)));
+        persistence.flush();
+
+        List<ConversionResponse> streamed = new ArrayList<>();
+        long count = persistence.forEachOnDate(LocalDate.of(2024, 3, 21), streamed::add);
+
+        assertEquals(3, count);
+        assertEquals(List.of("tx-c", "tx-a", "tx-b"), streamed.stream().map(ConversionResponse::getTransactionId).toList());
+        assertEquals(new BigDecimal("100.5"), streamed.get(0).getSourceAmount());
+        assertEquals(NOON, streamed.get(0).getConversionDate());
+    }
+
+    @Test
+    void keepsConvertedAmountInTargetMinorUnits() {
+        ConversionResponse dinars = conversion("tx-kwd", NOON);
+        dinars.setTargetCurrency("KWD");
+        dinars.setConvertedAmount(new BigDecimal("30.745"));
+        ConversionResponse yen = conversion("tx-jpy", NOON.plusSeconds(1));
+        yen.setTargetCurrency("JPY");
+        yen.setConvertedAmount(new BigDecimal("15146"));
+        persistence.append(dinars);
+        persistence.append(yen);
+        persistence.flush();
+
+        List<ConversionResponse> streamed = new ArrayList<>();
+        persistence.forEachOnDate(LocalDate.of(2024, 3, 21), streamed::add);
+
+        assertEquals(new BigDecimal("30.745"), persistence.findById("tx-kwd").getConvertedAmount());
+        assertEquals(new BigDecimal("15146"), persistence.findById("tx-jpy").getConvertedAmount());
+        assertEquals(new BigDecimal("30.745"), streamed.get(0).getConvertedAmount());
+        assertEquals(new BigDecimal("15146"), streamed.get(1).getConvertedAmount());
+    }
+
+    private static List<String> ids(HistoryPage page) {
+        return page.content().stream().map(ConversionResponse::getTransactionId).toList();
+    }
+
+    private static ConversionResponse conversion(String transactionId, LocalDateTime date) {
+        ConversionResponse conversion = new ConversionResponse();
+        conversion.setTransactionId(transactionId);
+        conversion.setSourceCurrency("USD");
+        conversion.setTargetCurrency("EUR");
+        conversion.setSourceAmount(new BigDecimal("100.5"));
+        conversion.setConvertedAmount(new BigDecimal("85.43"));
+        conversion.setExchangeRate(0.85);
+        conversion.setConversionDate(date);
+        return conversion;
+    }
+}
@@ -0,0 +1,214 @@
+package com.exchange.forex.service.impl;
+
+import com.exchange.forex.config.BulkJobProperties;
+import com.exchange.forex.exception.BulkJobNotFoundException;
+import com.exchange.forex.metrics.ConversionMetrics;
+import com.exchange.forex.model.BulkJob;
+import com.exchange.forex.model.BulkJobStatus;
+import com.exchange.forex.service.BulkConversionJobService;
+import com.exchange.forex.service.BulkConversionListener;
+import com.exchange.forex.service.CurrencyConversionService;
+import com.exchange.forex.stream.ConversionStreamWriters;
+import com.exchange.forex.stream.StreamFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class BulkConversionJobServiceTest {
+
+    private static final String CSV = "amount,sourceCurrency,targetCurrency\n-1,USD,EUR\n";
+
+    @Mock
+    private CurrencyConversionService conversionService;
+
+    @TempDir
+    private Path directory;
+
+    private ThreadPoolExecutor executor;
+    private BulkConversionJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        BulkJobProperties properties = new BulkJobProperties();
+        properties.setDirectory(directory);
+        properties.setTtl(Duration.ofMinutes(10));
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        jobService = new BulkConversionJobService(conversionService,
+            new ConversionStreamWriters(new ObjectMapper()), properties, executor, new ConversionMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void runsJobAndWritesResultFile() throws Exception {
+        doAnswer(invocation -> {
+            BulkConversionListener listener = invocation.getArgument(1);
+            listener.onFailure(1, "Amount must be greater than zero.");
+            listener.onComplete(1, 0, 1);
+            return null;
+        }).when(conversionService).streamBulkConversions(any(), any());
+
+        BulkJob job = jobService.submit(input(), StreamFormat.NDJSON);
+        awaitFinished(job);
+
+        assertEquals(BulkJobStatus.COMPLETED, job.getStatus());
+        assertEquals(1, job.getProcessedCount());
+        assertEquals(1, job.getFailedCount());
+        assertFalse(Files.exists(job.getInputFile()));
+        assertEquals("{\"rowNumber\":1,\"errorMessage\":\"Amount must be greater than zero.\"}\n" +
+            "{\"processedCount\":1,\"successfulCount\":0,\"failedCount\":1}\n", Files.readString(job.getResultFile()));
+        assertSame(job, jobService.getJob(job.getId()));
+    }
+
+    @Test
+    void marksJobFailedWhenConversionThrows() throws Exception {
+        doAnswer(invocation -> {
+            throw new RuntimeException("Error processing CSV file: broken");
+        }).when(conversionService).streamBulkConversions(any(), any());
+
+        BulkJob job = jobService.submit(input(), StreamFormat.CSV);
+        awaitFinished(job);
+
+        assertEquals(BulkJobStatus.FAILED, job.getStatus());
+        assertEquals("Error processing CSV file: broken", job.getErrorMessage());
+    }
+
+    @Test
+    void marksJobFailedWhenConversionThrowsAnError() throws Exception {
+        doAnswer(invocation -> {
+            throw new OutOfMemoryError("Java heap space");
+        }).when(conversionService).streamBulkConversions(any(), any());
+
+        BulkJob job = jobService.submit(input(), StreamFormat.NDJSON);
+        awaitFinished(job);
+
+        assertEquals(BulkJobStatus.FAILED, job.getStatus());
+        assertEquals("java.lang.OutOfMemoryError: Java heap space", job.getErrorMessage());
+        assertFalse(Files.exists(job.getInputFile()));
+    }
+
+    @Test
+    void rejectsSubmissionWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(conversionService).streamBulkConversions(any(), any());
+
+        BulkJob running = jobService.submit(input(), StreamFormat.NDJSON);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        BulkJob queued = jobService.submit(input(), StreamFormat.NDJSON);
+
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit(input(), StreamFormat.NDJSON));
+        assertEquals(2, jobService.size());
+        assertEquals(BulkJobStatus.QUEUED, queued.getStatus());
+
+        release.countDown();
+        awaitFinished(running);
+        awaitFinished(queued);
+        assertEquals(BulkJobStatus.COMPLETED, queued.getStatus());
+    }
+
+    @Test
+    void deletesPartialUploadWhenCopyFails() throws Exception {
+        InputStream broken = new InputStream() {
+            private int remaining = 100;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining-- == 0) {
+                    throw new IOException("Connection reset");
+                }
+                return 'x';
+            }
+        };
+
+        assertThrows(IOException.class, () -> jobService.submit(broken, StreamFormat.NDJSON));
+
+        assertEquals(0, jobService.size());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void evictsFinishedJobsAfterTtl() throws Exception {
+        BulkJob job = jobService.submit(input(), StreamFormat.NDJSON);
+        awaitFinished(job);
+
+        jobService.evictExpired();
+        assertEquals(1, jobService.size());
+
+        Instant later = job.getFinishedAt().plus(Duration.ofMinutes(11));
+        ReflectionTestUtils.setField(jobService, "clock", Clock.fixed(later, ZoneOffset.UTC));
+        jobService.evictExpired();
+
+        assertEquals(0, jobService.size());
+        assertFalse(Files.exists(job.getResultFile()));
+        assertThrows(BulkJobNotFoundException.class, () -> jobService.getJob(job.getId()));
+    }
+
+    @Test
+    void keepsExpiredJobWhileResultIsDownloaded() throws Exception {
+        BulkJob job = jobService.submit(input(), StreamFormat.NDJSON);
+        awaitFinished(job);
+        ReflectionTestUtils.setField(jobService, "clock",
+            Clock.fixed(job.getFinishedAt().plus(Duration.ofMinutes(11)), ZoneOffset.UTC));
+
+        try (InputStream download = jobService.openResult(job)) {
+            jobService.evictExpired();
+
+            assertEquals(1, jobService.size());
+            assertTrue(Files.exists(job.getResultFile()));
+        }
+        jobService.evictExpired();
+
+        assertEquals(0, jobService.size());
+        assertFalse(Files.exists(job.getResultFile()));
+        assertThrows(BulkJobNotFoundException.class, () -> jobService.openResult(job));
+    }
+
+    private static ByteArrayInputStream input() {
+        return new ByteArrayInputStream(CSV.getBytes());
+    }
+
+    private static void awaitFinished(BulkJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.getStatus().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.exchange.forex.service.impl;
+
+import com.exchange.forex.cache.RateSnapshot;
+import com.exchange.forex.cache.RateSnapshotCache;
+import com.exchange.forex.cache.RateSnapshotRefreshedEvent;
+import com.exchange.forex.exception.ExternalServiceException;
+import com.exchange.forex.model.RateTable;
+import com.exchange.forex.service.CrossRateEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CrossRateEngineTest {
+
+    @Mock
+    private RateSnapshotCache rateSnapshotCache;
+
+    @InjectMocks
+    private CrossRateEngine crossRateEngine;
+
+    private static final RateSnapshot USD_SNAPSHOT = snapshot(Map.of("USD", 1.0, "EUR", 0.8, "GBP", 0.75, "JPY", 150.0));
+
+    private static RateSnapshot snapshot(Map<String, Double> rates) {
+        Instant now = Instant.now();
+        return new RateSnapshot("USD", RateTable.of("USD", rates), now, now.plus(Duration.ofHours(1)));
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(crossRateEngine, "precision", 6);
+    }
+
+    @Test
+    void getExchangeRateFromPivot() throws ExternalServiceException {
+        when(rateSnapshotCache.getSnapshot("USD")).thenReturn(USD_SNAPSHOT);
+        assertEquals(0.8, crossRateEngine.getExchangeRate("USD", "EUR"));
+    }
+
+    @Test
+    void getExchangeRateToPivot() throws ExternalServiceException {
+        when(rateSnapshotCache.getSnapshot("USD")).thenReturn(USD_SNAPSHOT);
+        assertEquals(1.25, crossRateEngine.getExchangeRate("EUR", "USD"));
+    }
+
+    @Test
+    void getExchangeRateCrossPair() throws ExternalServiceException {
+        when(rateSnapshotCache.getSnapshot("USD")).thenReturn(USD_SNAPSHOT);
+        assertEquals(0.9375, crossRateEngine.getExchangeRate("EUR", "GBP"));
+        assertEquals(1.06667, crossRateEngine.getExchangeRate("GBP", "EUR"));
+        assertEquals(187.5, crossRateEngine.getExchangeRate("EUR", "JPY"));
+    }
+
+    @Test
+    void getExchangeRateUnknownCurrency() throws ExternalServiceException {
+        when(rateSnapshotCache.getSnapshot("USD")).thenReturn(USD_SNAPSHOT);
+        assertThrows(ExternalServiceException.class, () -> crossRateEngine.getExchangeRate("EUR", "XYZ"));
+    }
+
+    @Test
+    void getExchangeRateServesComputedPairsFromMatrix() throws ExternalServiceException {
+        when(rateSnapshotCache.getSnapshot("USD")).thenReturn(USD_SNAPSHOT);
+
+        crossRateEngine.getExchangeRate("EUR", "GBP");
+        crossRateEngine.getExchangeRate("GBP", "JPY");
+        crossRateEngine.getExchangeRate("JPY", "EUR");
+
+        verify(rateSnapshotCache, times(1)).getSnapshot("USD");
+    }
+
+    @Test
+    void onRateSnapshotRefreshedRebuildsMatrix() throws ExternalServiceException {
+        crossRateEngine.onRateSnapshotRefreshed(new RateSnapshotRefreshedEvent(USD_SNAPSHOT));
+        assertEquals(0.9375, crossRateEngine.getExchangeRate("EUR", "GBP"));
+
+        crossRateEngine.onRateSnapshotRefreshed(
+            new RateSnapshotRefreshedEvent(snapshot(Map.of("USD", 1.0, "EUR", 0.9, "GBP", 0.75))));
+        assertEquals(0.833333, crossRateEngine.getExchangeRate("EUR", "GBP"));
+
+        verify(rateSnapshotCache, never()).getSnapshot(anyString());
+    }
+}
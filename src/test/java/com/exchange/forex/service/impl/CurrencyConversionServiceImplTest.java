@@ -1,30 +1,69 @@
 package com.exchange.forex.service.impl;
 
+import com.exchange.forex.analytics.ConversionAnalytics;
+import com.exchange.forex.analytics.DailyAnalytics;
+import com.exchange.forex.cache.RateMatrix;
+import com.exchange.forex.config.HistoryProperties;
 import com.exchange.forex.dto.response.ConversionResponse;
 import com.exchange.forex.exception.ExternalServiceException;
-import com.exchange.forex.integration.impl.ExchangeRateProviderService;
+import com.exchange.forex.history.ConversionHistoryStore;
+import com.exchange.forex.history.HistoryPersistence;
+import com.exchange.forex.id.MonotonicTransactionIdGenerator;
+import com.exchange.forex.id.TransactionIdGenerator;
+import com.exchange.forex.metrics.ConversionMetrics;
+import com.exchange.forex.model.RateQuote;
+import com.exchange.forex.model.RateTable;
 import com.exchange.forex.service.CurrencyConversionService;
+import com.exchange.forex.service.ExchangeRateResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CurrencyConversionServiceImplTest {
 
     @Mock
-    private ExchangeRateProviderService exchangeRateProviderService;
+    private ExchangeRateResolver exchangeRateResolver;
+
+    @Mock
+    private HistoryPersistence historyPersistence;
+
+    @Spy
+    private ConversionHistoryStore historyStore = new ConversionHistoryStore(new HistoryProperties());
+
+    @Spy
+    private ConversionAnalytics analytics = new ConversionAnalytics();
+
+    @Spy
+    private ConversionMetrics metrics = new ConversionMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator = new MonotonicTransactionIdGenerator(1);
 
     @InjectMocks
     private CurrencyConversionService conversionService;
@@ -36,8 +75,8 @@ class CurrencyConversionServiceImplTest {
 
     @Test
     void convertCurrencySuccess() throws ExternalServiceException {
-        when(exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY))
-            .thenReturn(EXCHANGE_RATE);
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, TARGET_CURRENCY))
+            .thenReturn(new RateQuote(EXCHANGE_RATE, false));
 
         ConversionResponse response = conversionService.convertCurrency(AMOUNT, SOURCE_CURRENCY, TARGET_CURRENCY);
 
@@ -47,10 +86,55 @@ class CurrencyConversionServiceImplTest {
         assertEquals(AMOUNT, response.getSourceAmount());
         assertEquals(BigDecimal.valueOf(85.00).setScale(2), response.getConvertedAmount());
         assertEquals(EXCHANGE_RATE, response.getExchangeRate());
+        assertFalse(response.isStaleRate());
         assertNotNull(response.getTransactionId());
         assertNotNull(response.getConversionDate());
     }
 
+    @Test
+    void convertCurrencyRoundsToTargetMinorUnits() throws ExternalServiceException {
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, "JPY")).thenReturn(new RateQuote(151.456, false));
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, "KWD")).thenReturn(new RateQuote(0.30745, false));
+
+        assertEquals(new BigDecimal("15146"), conversionService.convertCurrency(AMOUNT, SOURCE_CURRENCY, "JPY").getConvertedAmount());
+        assertEquals(new BigDecimal("30.745"), conversionService.convertCurrency(AMOUNT, SOURCE_CURRENCY, "KWD").getConvertedAmount());
+    }
+
+    @Test
+    void convertCurrencyUpdatesAnalytics() throws ExternalServiceException {
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, TARGET_CURRENCY))
+            .thenReturn(new RateQuote(EXCHANGE_RATE, false));
+
+        conversionService.convertCurrency(AMOUNT, SOURCE_CURRENCY, TARGET_CURRENCY);
+        conversionService.convertCurrency(AMOUNT, SOURCE_CURRENCY, TARGET_CURRENCY);
+
+        DailyAnalytics day = conversionService.getAnalytics(LocalDate.now(), 10);
+        assertEquals(2, day.totalCount());
+        assertEquals(new BigDecimal("170.0000"), day.topPairs().get(0).convertedAmount());
+    }
+
+    @Test
+    void convertCurrencySucceedsWhenAnalyticsFail() throws ExternalServiceException {
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, TARGET_CURRENCY))
+            .thenReturn(new RateQuote(EXCHANGE_RATE, false));
+        doThrow(new ArithmeticException("Overflow")).when(analytics).record(any(ConversionResponse.class));
+
+        ConversionResponse response = conversionService.convertCurrency(AMOUNT, SOURCE_CURRENCY, TARGET_CURRENCY);
+
+        assertSame(response, historyStore.get(response.getTransactionId()));
+        verify(historyPersistence).append(response);
+    }
+
+    @Test
+    void convertCurrencyFlagsStaleRate() throws ExternalServiceException {
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, TARGET_CURRENCY))
+            .thenReturn(new RateQuote(EXCHANGE_RATE, true));
+
+        ConversionResponse response = conversionService.convertCurrency(AMOUNT, SOURCE_CURRENCY, TARGET_CURRENCY);
+
+        assertTrue(response.isStaleRate());
+    }
+
     @Test
     void convertCurrencyInvalidAmount() {
         assertThrows(IllegalArgumentException.class,
@@ -72,8 +156,8 @@ class CurrencyConversionServiceImplTest {
     @Test
     void getConversionHistoryByTransactionId() throws ExternalServiceException {
         // First perform a conversion to have something in history
-        when(exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY))
-            .thenReturn(EXCHANGE_RATE);
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, TARGET_CURRENCY))
+            .thenReturn(new RateQuote(EXCHANGE_RATE, false));
         ConversionResponse conversion = conversionService.convertCurrency(AMOUNT, SOURCE_CURRENCY, TARGET_CURRENCY);
 
         Map<String, Object> history = conversionService.getConversionHistory(
@@ -91,8 +175,8 @@ class CurrencyConversionServiceImplTest {
     @Test
     void getConversionHistoryByDate() throws ExternalServiceException {
         // First perform a conversion to have something in history
-        when(exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY))
-            .thenReturn(EXCHANGE_RATE);
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, TARGET_CURRENCY))
+            .thenReturn(new RateQuote(EXCHANGE_RATE, false));
         conversionService.convertCurrency(AMOUNT, SOURCE_CURRENCY, TARGET_CURRENCY);
 
         Map<String, Object> history = conversionService.getConversionHistory(
@@ -115,8 +199,9 @@ class CurrencyConversionServiceImplTest {
 
     @Test
     void processBulkConversionsSuccess() throws IOException, ExternalServiceException {
-        when(exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY))
-            .thenReturn(EXCHANGE_RATE);
+        when(exchangeRateResolver.getMatrix()).thenReturn(RateMatrix.EMPTY);
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, TARGET_CURRENCY))
+            .thenReturn(new RateQuote(EXCHANGE_RATE, false));
 
         String csvContent = "amount,sourceCurrency,targetCurrency\n" +
             "100,USD,EUR\n" +
@@ -139,6 +224,7 @@ class CurrencyConversionServiceImplTest {
 
     @Test
     void processBulkConversionsInvalidData() throws IOException {
+        when(exchangeRateResolver.getMatrix()).thenReturn(RateMatrix.EMPTY);
         String csvContent = "amount,sourceCurrency,targetCurrency\n" +
             "-100,USD,EUR\n" +  // Invalid amount
             "abc,USD,EUR";      // Invalid number format
@@ -156,4 +242,120 @@ class CurrencyConversionServiceImplTest {
         assertEquals(2, result.get("processedCount"));
         assertTrue(((List<?>)result.get("failedConversions")).size() > 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void processBulkConversionsKeepsRowOrderAndIsolatesFailures() throws ExternalServiceException {
+        ReflectionTestUtils.setField(conversionService, "bulkParallelism", 4);
+        when(exchangeRateResolver.getMatrix()).thenReturn(RateMatrix.EMPTY);
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, TARGET_CURRENCY))
+            .thenReturn(new RateQuote(EXCHANGE_RATE, false));
+
+        StringBuilder csvContent = new StringBuilder("amount,sourceCurrency,targetCurrency\n");
+        for (int row = 1; row <= 20; row++) {
+            csvContent.append(row % 7 == 0 ? "-1" : String.valueOf(row)).append(",USD,EUR\n");
+        }
+
+        Map<String, Object> result = conversionService.processBulkConversions(
+            new ByteArrayInputStream(csvContent.toString().getBytes()));
+
+        assertEquals(20, result.get("processedCount"));
+        List<?> successful = (List<?>) result.get("successfulConversions");
+        List<?> failed = (List<?>) result.get("failedConversions");
+        assertEquals(18, successful.size());
+        assertEquals(BigDecimal.ONE, ((ConversionResponse) successful.get(0)).getSourceAmount());
+        assertEquals(BigDecimal.valueOf(20), ((ConversionResponse) successful.get(17)).getSourceAmount());
+        assertEquals(7, ((Map<?, ?>) failed.get(0)).get("rowNumber"));
+        assertEquals(14, ((Map<?, ?>) failed.get(1)).get("rowNumber"));
+        assertEquals("Amount must be greater than zero.", ((Map<?, ?>) failed.get(0)).get("errorMessage"));
+    }
+
+    @Test
+    void processBulkConversionsResolvesEachPairOnce() throws ExternalServiceException {
+        when(exchangeRateResolver.getMatrix()).thenReturn(RateMatrix.EMPTY);
+        when(exchangeRateResolver.getQuote(SOURCE_CURRENCY, TARGET_CURRENCY))
+            .thenReturn(new RateQuote(EXCHANGE_RATE, false), new RateQuote(0.5, false));
+        when(exchangeRateResolver.getQuote("USD", "XXX"))
+            .thenThrow(new ExternalServiceException("Currency not found: XXX"));
+
+        StringBuilder csvContent = new StringBuilder("amount,sourceCurrency,targetCurrency\n");
+        for (int row = 1; row <= 3000; row++) {
+            csvContent.append(row).append(row % 3 == 0 ? ",USD,XXX\n" : ",USD,EUR\n");
+        }
+
+        Map<String, Object> result = conversionService.processBulkConversions(
+            new ByteArrayInputStream(csvContent.toString().getBytes()));
+
+        List<?> successful = (List<?>) result.get("successfulConversions");
+        List<?> failed = (List<?>) result.get("failedConversions");
+        assertEquals(2000, successful.size());
+        assertEquals(1000, failed.size());
+        assertTrue(successful.stream().allMatch(conversion -> ((ConversionResponse) conversion).getExchangeRate() == EXCHANGE_RATE));
+        assertEquals("Failed to convert currency: Currency not found: XXX", ((Map<?, ?>) failed.get(999)).get("errorMessage"));
+        verify(exchangeRateResolver, times(1)).getQuote(SOURCE_CURRENCY, TARGET_CURRENCY);
+        verify(exchangeRateResolver, times(1)).getQuote("USD", "XXX");
+    }
+
+    @Test
+    void processBulkConversionsPricesPairsFromTheMatrixCapturedAtTheStart() throws ExternalServiceException {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        when(exchangeRateResolver.getMatrix()).thenReturn(RateMatrix.builder()
+            .row("USD", RateTable.of("USD", Map.of("EUR", EXCHANGE_RATE)), expiresAt)
+            .row("EUR", RateTable.of("EUR", Map.of("USD", 1.25)), expiresAt)
+            .build());
+        when(exchangeRateResolver.getQuote("GBP", "EUR")).thenReturn(new RateQuote(1.15, false));
+
+        String csvContent = "amount,sourceCurrency,targetCurrency\n" +
+            "100,USD,EUR\n" +
+            "100,EUR,USD\n" +
+            "100,GBP,EUR\n";
+
+        Map<String, Object> result = conversionService.processBulkConversions(
+            new ByteArrayInputStream(csvContent.getBytes()));
+
+        List<?> successful = (List<?>) result.get("successfulConversions");
+        assertEquals(3, successful.size());
+        assertEquals(EXCHANGE_RATE, ((ConversionResponse) successful.get(0)).getExchangeRate());
+        assertEquals(1.25, ((ConversionResponse) successful.get(1)).getExchangeRate());
+        assertEquals(1.15, ((ConversionResponse) successful.get(2)).getExchangeRate());
+        verify(exchangeRateResolver, times(1)).getMatrix();
+        verify(exchangeRateResolver, never()).getQuote(SOURCE_CURRENCY, TARGET_CURRENCY);
+        verify(exchangeRateResolver, never()).getQuote(TARGET_CURRENCY, SOURCE_CURRENCY);
+    }
+
+    @Test
+    void exportConversionsReadsIncompleteDaysFromPersistence() {
+        ConversionResponse older = conversion("tx-1", LocalDateTime.of(2024, 3, 20, 9, 0));
+        ConversionResponse newer = conversion("tx-2", LocalDateTime.of(2024, 3, 21, 9, 0));
+        historyStore.add(newer);
+        historyStore.markIncompleteThrough(older.getConversionDate());
+        when(historyPersistence.forEachOnDate(eq(LocalDate.of(2024, 3, 20)), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<ConversionResponse>>getArgument(1).accept(older);
+            return 1L;
+        });
+
+        List<ConversionResponse> exported = new ArrayList<>();
+        long count = conversionService.exportConversions(LocalDate.of(2024, 3, 20), LocalDate.of(2024, 3, 22), exported::add);
+
+        assertEquals(2, count);
+        assertEquals(List.of(older, newer), exported);
+        verify(historyPersistence, never()).forEachOnDate(eq(LocalDate.of(2024, 3, 21)), any());
+    }
+
+    @Test
+    void exportConversionsRejectsReversedRange() {
+        assertThrows(IllegalArgumentException.class,
+            () -> conversionService.exportConversions(LocalDate.of(2024, 3, 21), LocalDate.of(2024, 3, 20), conversion -> { }));
+    }
+
+    private static ConversionResponse conversion(String transactionId, LocalDateTime conversionDate) {
+        ConversionResponse conversion = new ConversionResponse();
+        conversion.setTransactionId(transactionId);
+        conversion.setSourceCurrency(SOURCE_CURRENCY);
+        conversion.setTargetCurrency(TARGET_CURRENCY);
+        conversion.setSourceAmount(AMOUNT);
+        conversion.setConvertedAmount(new BigDecimal("85.00"));
+        conversion.setExchangeRate(EXCHANGE_RATE);
+        conversion.setConversionDate(conversionDate);
+        return conversion;
+    }
+}
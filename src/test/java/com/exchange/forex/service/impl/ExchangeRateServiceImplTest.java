@@ -1,22 +1,29 @@
 package com.exchange.forex.service.impl;
 
 import com.exchange.forex.exception.ExternalServiceException;
-import com.exchange.forex.integration.impl.ExchangeRateProviderService;
+import com.exchange.forex.service.ExchangeRateResolver;
 import com.exchange.forex.service.ExchangeRateService;
+import com.exchange.forex.timeseries.RateHistoryStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ExchangeRateServiceImplTest {
 
     @Mock
-    private ExchangeRateProviderService exchangeRateProviderService;
+    private ExchangeRateResolver exchangeRateResolver;
+
+    @Mock
+    private RateHistoryStore rateHistoryStore;
 
     @InjectMocks
     private ExchangeRateService exchangeRateService;
@@ -27,7 +34,7 @@ class ExchangeRateServiceImplTest {
 
     @Test
     void getExchangeRateSuccess() throws ExternalServiceException {
-        when(exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY))
+        when(exchangeRateResolver.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY))
             .thenReturn(EXCHANGE_RATE);
 
         double rate = exchangeRateService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY);
@@ -60,10 +67,17 @@ class ExchangeRateServiceImplTest {
 
     @Test
     void getExchangeRateExternalServiceError() throws ExternalServiceException {
-        when(exchangeRateProviderService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY))
+        when(exchangeRateResolver.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY))
             .thenThrow(new ExternalServiceException("API Error"));
 
         assertThrows(RuntimeException.class,
             () -> exchangeRateService.getExchangeRate(SOURCE_CURRENCY, TARGET_CURRENCY));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRateAsOfInvalidCurrency() {
+        assertThrows(IllegalArgumentException.class,
+            () -> exchangeRateService.getRateAsOf("US", TARGET_CURRENCY, Instant.now()));
+        verifyNoInteractions(rateHistoryStore);
+    }
+}
@@ -0,0 +1,102 @@
+package com.exchange.forex.stream;
+
+import com.exchange.forex.dto.response.ConversionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionStreamWritersTest {
+
+    private ConversionStreamWriters streamWriters;
+    private ConversionResponse response;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        streamWriters = new ConversionStreamWriters(objectMapper);
+
+        response = new ConversionResponse();
+        response.setTransactionId("tx-1");
+        response.setSourceCurrency("USD");
+        response.setTargetCurrency("EUR");
+        response.setSourceAmount(BigDecimal.valueOf(100));
+        response.setConvertedAmount(new BigDecimal("85.00"));
+        response.setExchangeRate(0.85);
+        response.setConversionDate(LocalDateTime.of(2024, 3, 21, 14, 30));
+    }
+
+    @Test
+    void ndjsonWritesOneLinePerRowAndTotals() throws IOException {
+        String[] lines = write(StreamFormat.NDJSON).split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"rowNumber\":1,\"conversion\":{\"transactionId\":\"tx-1\""));
+        assertTrue(lines[0].contains("\"conversionDate\":\"2024-03-21T14:30:00\""));
+        assertEquals("{\"rowNumber\":2,\"errorMessage\":\"Amount must be greater than zero.\"}", lines[1]);
+        assertEquals("{\"processedCount\":2,\"successfulCount\":1,\"failedCount\":1}", lines[2]);
+    }
+
+    @Test
+    void csvWritesHeaderRowsAndTotalsComment() throws IOException {
+        String[] lines = write(StreamFormat.CSV).split("\r\n");
+
+        assertEquals(4, lines.length);
+        assertEquals(String.join(",", CsvConversionWriter.HEADER), lines[0]);
+        assertEquals("1,SUCCESS,tx-1,USD,EUR,100,85.00,0.85,false,2024-03-21T14:30,", lines[1]);
+        assertEquals("2,FAILED,,,,,,,,,Amount must be greater than zero.", lines[2]);
+        assertEquals("# processedCount=2,successfulCount=1,failedCount=1", lines[3]);
+    }
+
+    @Test
+    void ndjsonExportWritesOneConversionPerLine() throws IOException {
+        String[] lines = export(StreamFormat.NDJSON).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"transactionId\":\"tx-1\""));
+        assertTrue(lines[1].contains("\"conversionDate\":\"2024-03-21T14:30:00\""));
+    }
+
+    @Test
+    void csvExportWritesHeaderAndConversionRows() throws IOException {
+        String[] lines = export(StreamFormat.CSV).split("\r\n");
+
+        assertEquals(3, lines.length);
+        assertEquals(String.join(",", CsvExportWriter.HEADER), lines[0]);
+        assertEquals("tx-1,USD,EUR,100,85.00,0.85,false,2024-03-21T14:30", lines[1]);
+    }
+
+    @Test
+    void parsesFormatCaseInsensitively() {
+        assertEquals(StreamFormat.NDJSON, StreamFormat.from("NDJson"));
+        assertThrows(IllegalArgumentException.class, () -> StreamFormat.from("xml"));
+    }
+
+    private String write(StreamFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ConversionStreamWriter writer = streamWriters.open(format, out)) {
+            writer.onConversion(1, response);
+            writer.onFailure(2, "Amount must be greater than zero.");
+            writer.onComplete(2, 1, 1);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private String export(StreamFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ConversionExportWriter writer = streamWriters.openExport(format, out)) {
+            writer.accept(response);
+            writer.accept(response);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
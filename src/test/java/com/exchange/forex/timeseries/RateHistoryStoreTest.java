@@ -0,0 +1,126 @@
+package com.exchange.forex.timeseries;
+
+import com.exchange.forex.cache.RateSnapshot;
+import com.exchange.forex.cache.RateSnapshotRefreshedEvent;
+import com.exchange.forex.model.RateTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateHistoryStoreTest {
+
+    private static final Instant MIDNIGHT = Instant.parse("2024-03-21T00:00:00Z");
+
+    private final RateHistoryStore store = new RateHistoryStore();
+
+    @Test
+    void looksUpLastRateAtOrBeforeTime() {
+        record(MIDNIGHT.minusSeconds(60), 0.90);
+        record(MIDNIGHT.plusSeconds(3600), 0.85);
+        record(MIDNIGHT.plusSeconds(7200), 0.86);
+
+        assertNull(store.getAsOf("USD", "EUR", MIDNIGHT.minusSeconds(61)));
+        assertEquals(new RatePoint(MIDNIGHT.minusSeconds(60), 0.90), store.getAsOf("USD", "EUR", MIDNIGHT.plusSeconds(3599)));
+        assertEquals(new RatePoint(MIDNIGHT.plusSeconds(3600), 0.85), store.getAsOf("USD", "EUR", MIDNIGHT.plusSeconds(3600)));
+        assertEquals(0.86, store.getAsOf("USD", "EUR", MIDNIGHT.plusSeconds(86_400 * 3)).rate());
+        assertEquals(1 / 0.85, store.getAsOf("EUR", "USD", MIDNIGHT.plusSeconds(3600)).rate(), 1e-12);
+        assertNull(store.getAsOf("EUR", "GBP", MIDNIGHT));
+    }
+
+    @Test
+    void ignoresRatesOlderThanTheLastRecorded() {
+        record(MIDNIGHT.plusSeconds(60), 0.85);
+        record(MIDNIGHT, 0.80);
+        record(MIDNIGHT.minusSeconds(86_400), 0.80);
+
+        assertEquals(1, store.getStats().points() / 2);
+        assertNull(store.getAsOf("USD", "EUR", MIDNIGHT.plusSeconds(59)));
+    }
+
+    @Test
+    void recordsARepeatedSnapshotOnce() {
+        RateSnapshot snapshot = new RateSnapshot("USD", RateTable.of("USD", Map.of("EUR", 0.85, "GBP", 0.79)),
+            MIDNIGHT, MIDNIGHT.plusSeconds(3600));
+
+        store.onRateSnapshotRefreshed(new RateSnapshotRefreshedEvent(snapshot));
+        store.onRateSnapshotRefreshed(new RateSnapshotRefreshedEvent(snapshot));
+        record(MIDNIGHT, 0.86);
+
+        assertEquals(2, store.getStats().points());
+        assertEquals(0.85, store.getAsOf("USD", "EUR", MIDNIGHT).rate());
+    }
+
+    @Test
+    void buildsCandlesPerInterval() {
+        double[] rates = {0.85, 0.87, 0.84, 0.86, 0.90};
+        for (int i = 0; i < rates.length; i++) {
+            record(MIDNIGHT.plusSeconds(1800L * i), rates[i]);
+        }
+
+        List<RateCandle> candles = store.getCandles("USD", "EUR", MIDNIGHT, MIDNIGHT.plusSeconds(7200), Duration.ofHours(1));
+
+        assertEquals(List.of(
+            new RateCandle(MIDNIGHT, 0.85, 0.87, 0.85, 0.87, 2),
+            new RateCandle(MIDNIGHT.plusSeconds(3600), 0.84, 0.86, 0.84, 0.86, 2)
+        ), candles);
+        RateCandle inverted = store.getCandles("EUR", "USD", MIDNIGHT, MIDNIGHT.plusSeconds(3600), Duration.ofHours(1)).get(0);
+        assertEquals(1 / 0.85, inverted.high(), 1e-12);
+        assertEquals(1 / 0.87, inverted.low(), 1e-12);
+    }
+
+    @Test
+    void rejectsInvalidRanges() {
+        assertThrows(IllegalArgumentException.class,
+            () -> store.getCandles("USD", "EUR", MIDNIGHT, MIDNIGHT, Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> store.getCandles("USD", "EUR", MIDNIGHT, MIDNIGHT.plusSeconds(3600), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+            () -> store.getCandles("USD", "EUR", MIDNIGHT, MIDNIGHT.plusSeconds(86_400), Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void dropsDaysPastRetention() {
+        record(MIDNIGHT.minusSeconds(86_400 * 31L), 0.80);
+        record(MIDNIGHT, 0.85);
+        ReflectionTestUtils.setField(store, "clock", Clock.fixed(MIDNIGHT, ZoneOffset.UTC));
+
+        store.evictExpired();
+
+        assertNull(store.getAsOf("USD", "EUR", MIDNIGHT.minusSeconds(1)));
+        assertEquals(0.85, store.getAsOf("USD", "EUR", MIDNIGHT).rate());
+    }
+
+    @Test
+    void keepsRelativePrecisionOfTinyRates() {
+        RateTable rates = RateTable.of("VND", Map.of("BTC", 0.0000000123456789, "IDR", 0.63));
+        store.record(new RateSnapshot("VND", rates, MIDNIGHT, MIDNIGHT.plusSeconds(3600)));
+
+        assertEquals(0.0000000123456789, store.getAsOf("VND", "BTC", MIDNIGHT).rate());
+        assertEquals(1 / 0.0000000123456789, store.getAsOf("BTC", "VND", MIDNIGHT).rate());
+    }
+
+    @Test
+    void keepsAMillionPointsCompact() {
+        RateSeries series = new RateSeries();
+        for (int i = 0; i < 1_000_000; i++) {
+            assertTrue(series.append(MIDNIGHT.toEpochMilli() + i * 1000L, 0.85 + (i % 100) * 1e-6));
+        }
+
+        assertEquals(1_000_000, series.points());
+        assertTrue(series.estimatedBytes() < 16 * 1024 * 1024, "estimated bytes: " + series.estimatedBytes());
+        assertEquals(0.85 + 42 * 1e-6, series.asOf(MIDNIGHT.toEpochMilli() + 742_000L).rate(), 1e-10);
+    }
+
+    private void record(Instant fetchedAt, double eurRate) {
+        RateTable rates = RateTable.of("USD", Map.of("EUR", eurRate, "GBP", 0.79));
+        store.record(new RateSnapshot("USD", rates, fetchedAt, fetchedAt.plusSeconds(3600)));
+    }
+}